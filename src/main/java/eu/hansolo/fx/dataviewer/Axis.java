@@ -17,7 +17,10 @@
 package eu.hansolo.fx.dataviewer;
 
 import eu.hansolo.fx.dataviewer.font.Fonts;
+import eu.hansolo.fx.dataviewer.tools.DecimalFormatter;
 import eu.hansolo.fx.dataviewer.tools.Helper;
+import eu.hansolo.fx.dataviewer.tools.TextWidthCache;
+import eu.hansolo.fx.dataviewer.tools.TimeStep;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
@@ -39,11 +42,14 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Locale;
 
 import static javafx.geometry.Orientation.VERTICAL;
@@ -53,6 +59,11 @@ import static javafx.geometry.Orientation.VERTICAL;
 public class Axis extends Region {
     public  static final double                               MIN_MAJOR_LINE_WIDTH  = 1;
     public  static final double                               MIN_MINOR_LINE_WIDTH  = 0.5;
+    private static final double                               TICK_EPSILON          = 1e-9;
+    private static final int                                  MAX_NO_OF_TICKS       = 100_000;
+    private static final int                                  MAX_NO_OF_MAJOR_TICKS = 10;
+    private static final double                               MAX_STRIP_LENGTH      = 8192;
+    private static final double                               STRIP_TOLERANCE       = 1e-6;
     private static final double                               MINIMUM_WIDTH         = 0;
     private static final double                               MINIMUM_HEIGHT        = 0;
     private static final double                               MAXIMUM_WIDTH         = 4096;
@@ -62,6 +73,9 @@ public class Axis extends Region {
     private              double                               height;
     private              Canvas                               canvas;
     private              GraphicsContext                      ctx;
+    private              Canvas                               titleCanvas;
+    private              GraphicsContext                      titleCtx;
+    private              Rectangle                            clip;
     private              Pane                                 pane;
     private              double                               _minValue;
     private              DoubleProperty                       minValue;
@@ -110,7 +124,8 @@ public class Axis extends Region {
     private              ObjectProperty<Locale>               locale;
     private              int                                  _decimals;
     private              IntegerProperty                      decimals;
-    private              String                               tickLabelFormatString;
+    private              DecimalFormatter                     tickLabelFormatter;
+    private              DecimalFormatter                     logLabelFormatter;
     private              TickLabelOrientation                 _tickLabelOrientation;
     private              ObjectProperty<TickLabelOrientation> tickLabelOrientation;
     private              TickLabelFormat                      _tickLabelFormat;
@@ -123,6 +138,28 @@ public class Axis extends Region {
     private              DoubleProperty                       tickLabelFontSize;
     private              double                               _titleFontSize;
     private              DoubleProperty                       titleFontSize;
+    private              TextWidthCache                       textWidthCache;
+    private              double[]                             tickValues;
+    private              boolean[]                            majorTicks;
+    private              String[]                             tickLabels;
+    private              String[]                             spareTickLabels;
+    private              long                                 firstTickIndex;
+    private              int                                  noOfTicks;
+    private              double                               ticksMinValue;
+    private              double                               ticksMaxValue;
+    private              double                               ticksMinorSpace;
+    private              double                               ticksMajorSpace;
+    private              AxisType                             ticksType;
+    private              TimeStep                             ticksTimeStep;
+    private              boolean                              _panCache;
+    private              BooleanProperty                      panCache;
+    private              boolean                              panning;
+    private              double                               stripMinValue;
+    private              double                               stripMaxValue;
+    private              double                               stripStepSize;
+    private              double                               stripMinorSpace;
+    private              double                               stripMajorSpace;
+    private              boolean                              stripFullRange;
 
 
     // ******************** Constructors **************************************
@@ -183,7 +220,11 @@ public class Axis extends Region {
         _autoFontSize                     = true;
         _tickLabelFontSize                = 10;
         _titleFontSize                    = 10;
-        tickLabelFormatString             = new StringBuilder("%.").append(Integer.toString(_decimals)).append("f").toString();
+        _panCache                         = false;
+        tickLabelFormatter                = new DecimalFormatter(_decimals, _locale);
+        logLabelFormatter                 = new DecimalFormatter(0, _locale);
+        ticksMinValue                     = Double.NaN;
+        textWidthCache                    = new TextWidthCache();
 
         initGraphics();
         registerListeners();
@@ -208,7 +249,13 @@ public class Axis extends Region {
         canvas = new Canvas(width, height);
         ctx = canvas.getGraphicsContext2D();
 
-        pane = new Pane(canvas);
+        titleCanvas = new Canvas(width, height);
+        titleCtx    = titleCanvas.getGraphicsContext2D();
+
+        clip = new Rectangle(width, height);
+
+        pane = new Pane(canvas, titleCanvas);
+        pane.setClip(clip);
 
         getChildren().setAll(pane);
     }
@@ -283,6 +330,17 @@ public class Axis extends Region {
     }
     public double getRange() { return getMaxValue() - getMinValue(); }
 
+    /**
+     * Converts a value to the scale of the axis on which positions are linear. This is
+     * log10(VALUE) for logarithmic axes (values <= 0 are clamped) and VALUE otherwise.
+     */
+    public double toScale(final double VALUE) { return AxisType.LOGARITHMIC == getType() ? Math.log10(Math.max(VALUE, Double.MIN_NORMAL)) : VALUE; }
+    public double fromScale(final double VALUE) { return AxisType.LOGARITHMIC == getType() ? Math.pow(10, VALUE) : VALUE; }
+
+    public double getScaleMin() { return toScale(getMinValue()); }
+    public double getScaleMax() { return toScale(getMaxValue()); }
+    public double getScaleRange() { return getScaleMax() - getScaleMin(); }
+
     public boolean isAutoScale() { return null == autoScale ? _autoScale : autoScale.get(); }
     public void setAutoScale(final boolean AUTO_SCALE) {
         if (null == autoScale) {
@@ -303,8 +361,42 @@ public class Axis extends Region {
         return autoScale;
     }
 
+    /**
+     * Shifts the range by VALUE in the scale of the axis, e.g. in decades for logarithmic axes.
+     */
     public void shift(final double VALUE) {
-        setMinMax(getMinValue() + VALUE, getMaxValue() + VALUE);
+        panning = true;
+        try {
+            setMinMax(fromScale(getScaleMin() + VALUE), fromScale(getScaleMax() + VALUE));
+        } finally {
+            panning = false;
+        }
+    }
+
+    /**
+     * If enabled the ticks and labels are rendered into a strip that is three times
+     * as long as the visible axis. Shifting the axis then only moves the strip and
+     * the strip is only rendered again if the visible range leaves it.
+     * Not used for auto scaled axes and axes at Position.CENTER.
+     */
+    public boolean isPanCache() { return null == panCache ? _panCache : panCache.get(); }
+    public void setPanCache(final boolean PAN_CACHE) {
+        if (null == panCache) {
+            _panCache = PAN_CACHE;
+            resize();
+        } else {
+            panCache.set(PAN_CACHE);
+        }
+    }
+    public BooleanProperty panCacheProperty() {
+        if (null == panCache) {
+            panCache = new BooleanPropertyBase(_panCache) {
+                @Override protected void invalidated() { resize(); }
+                @Override public Object getBean() { return Axis.this; }
+                @Override public String getName() { return "panCache"; }
+            };
+        }
+        return panCache;
     }
 
     public String getTitle() {  return null == title ? _title : title.get(); }
@@ -353,7 +445,7 @@ public class Axis extends Region {
     public void setType(final AxisType TYPE) {
         if (null == type) {
             _type = TYPE;
-            redraw();
+            resize();
         } else {
             type.set(TYPE);
         }
@@ -361,7 +453,7 @@ public class Axis extends Region {
     public ObjectProperty<AxisType> typeProperty() {
         if (null == type) {
             type = new ObjectPropertyBase<AxisType>(_type) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { resize(); }
                 @Override public Object getBean() {  return Axis.this;  }
                 @Override public String getName() {  return "axisType";  }
             };
@@ -667,7 +759,9 @@ public class Axis extends Region {
     public void setLocale(final Locale LOCALE) {
         if (null == locale) {
             _locale = LOCALE;
-            tickLabelFormatString = new StringBuilder("%.").append(Integer.toString(getDecimals())).append("f").toString();
+            tickLabelFormatter.setLocale(LOCALE);
+            logLabelFormatter.setLocale(LOCALE);
+            clearTickLabels();
             redraw();
         } else {
             locale.set(LOCALE);
@@ -677,7 +771,9 @@ public class Axis extends Region {
         if (null == locale) {
             locale = new ObjectPropertyBase<Locale>(_locale) {
                 @Override protected void invalidated() {
-                    tickLabelFormatString = new StringBuilder("%.").append(Integer.toString(getDecimals())).append("f").toString();
+                    tickLabelFormatter.setLocale(get());
+                    logLabelFormatter.setLocale(get());
+                    clearTickLabels();
                     redraw();
                 }
                 @Override public Object getBean() { return Axis.this; }
@@ -692,7 +788,8 @@ public class Axis extends Region {
     public void setDecimals(final int DECIMALS) {
         if (null == decimals) {
             _decimals = Helper.clamp(0, 12, DECIMALS);
-            tickLabelFormatString = new StringBuilder("%.").append(Integer.toString(_decimals)).append("f").toString();
+            tickLabelFormatter.setDecimals(_decimals);
+            clearTickLabels();
             redraw();
         } else {
             decimals.set(DECIMALS);
@@ -703,7 +800,8 @@ public class Axis extends Region {
             decimals = new IntegerPropertyBase(_decimals) {
                 @Override protected void invalidated() {
                     set(Helper.clamp(0, 12, get()));
-                    tickLabelFormatString = new StringBuilder("%.").append(Integer.toString(get())).append("f").toString();
+                    tickLabelFormatter.setDecimals(get());
+                    clearTickLabels();
                     redraw();
                 }
                 @Override public Object getBean() { return Axis.this; }
@@ -738,6 +836,7 @@ public class Axis extends Region {
     public void setTickLabelFormat(final TickLabelFormat FORMAT) {
         if (null == tickLabelFormat) {
             _tickLabelFormat = FORMAT;
+            clearTickLabels();
             redraw();
         } else {
             tickLabelFormat.set(FORMAT);
@@ -746,7 +845,10 @@ public class Axis extends Region {
     public ObjectProperty<TickLabelFormat> tickLabelFormatProperty() {
         if (null == tickLabelFormat) {
             tickLabelFormat = new ObjectPropertyBase<TickLabelFormat>(_tickLabelFormat) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() {
+                    clearTickLabels();
+                    redraw();
+                }
                 @Override public Object getBean() { return Axis.this; }
                 @Override public String getName() { return "tickLabelFormat"; }
             };
@@ -823,6 +925,167 @@ public class Axis extends Region {
         return titleFontSize;
     }
 
+    /**
+     * Returns the number of minor and major ticks in [min, max], the ticks are
+     * multiples of the minor tick space. The values are kept in an array that
+     * is reused and only recomputed if the range or the tick spaces changed.
+     */
+    public int getNoOfTicks() {
+        calcTicks(getMinValue(), getMaxValue());
+        return noOfTicks;
+    }
+    /**
+     * Returns the value of the tick with the given index (valid after getNoOfTicks()).
+     */
+    public double getTickValue(final int INDEX) {
+        if (INDEX < 0 || INDEX >= noOfTicks) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + noOfTicks); }
+        return tickValues[INDEX];
+    }
+    public boolean isMajorTick(final int INDEX) {
+        if (INDEX < 0 || INDEX >= noOfTicks) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + noOfTicks); }
+        return majorTicks[INDEX];
+    }
+
+    // Ticks are addressed by their index i (value = i * minorTickSpace), major ticks are every (majorTickSpace / minorTickSpace)th index
+    private void calcTicks(final double MIN_VALUE, final double MAX_VALUE) {
+        double minValue       = MIN_VALUE;
+        double maxValue       = MAX_VALUE;
+        double minorTickSpace = getMinorTickSpace();
+        double majorTickSpace = getMajorTickSpace();
+        AxisType axisType     = getType();
+        if (minValue == ticksMinValue && maxValue == ticksMaxValue && minorTickSpace == ticksMinorSpace && majorTickSpace == ticksMajorSpace && axisType == ticksType) { return; }
+        boolean sameSpacing    = minorTickSpace == ticksMinorSpace && majorTickSpace == ticksMajorSpace && axisType == ticksType;
+        long    lastFirstIndex = firstTickIndex;
+        int     lastNoOfTicks  = noOfTicks;
+        ticksMinValue   = minValue;
+        ticksMaxValue   = maxValue;
+        ticksMinorSpace = minorTickSpace;
+        ticksMajorSpace = majorTickSpace;
+        ticksType       = axisType;
+        noOfTicks       = 0;
+        if (!(minorTickSpace > 0) || !(maxValue > minValue)) { return; }
+        switch(axisType) {
+            case LOGARITHMIC: calcLogTicks(minValue, maxValue); return;
+            case TIME       : calcTimeTicks(minValue, maxValue); return;
+            default         : break;
+        }
+
+        long firstTick = (long) Math.ceil(minValue / minorTickSpace - TICK_EPSILON);
+        long lastTick  = (long) Math.floor(maxValue / minorTickSpace + TICK_EPSILON);
+        long count     = lastTick - firstTick + 1;
+        if (count <= 0 || count > MAX_NO_OF_TICKS) { return; }
+        if (null == tickValues || tickValues.length < count) {
+            tickValues      = new double[(int) count];
+            majorTicks      = new boolean[(int) count];
+            spareTickLabels = new String[(int) count];
+            tickLabels      = null == tickLabels ? new String[(int) count] : Arrays.copyOf(tickLabels, (int) count);
+        }
+
+        // Keep the labels of ticks that are still visible, e.g. while panning
+        String[] labels = spareTickLabels;
+        Arrays.fill(labels, 0, (int) count, null);
+        if (sameSpacing) {
+            long from = Math.max(firstTick, lastFirstIndex);
+            long to   = Math.min(lastTick, lastFirstIndex + lastNoOfTicks - 1);
+            for (long index = from ; index <= to ; index++) { labels[(int) (index - firstTick)] = tickLabels[(int) (index - lastFirstIndex)]; }
+        }
+        spareTickLabels = tickLabels;
+        tickLabels      = labels;
+        firstTickIndex  = firstTick;
+
+        double  ratio       = majorTickSpace / minorTickSpace;
+        long    majorRatio  = Math.round(ratio);
+        boolean integral    = majorRatio > 0 && Math.abs(ratio - majorRatio) < ratio * TICK_EPSILON;
+        // Dividing by the inverse of fractional tick spaces like 0.1 gives the closest double (0.3 instead of 0.30000000000000004)
+        double  inverse     = Math.rint(1.0 / minorTickSpace);
+        boolean useInverse  = minorTickSpace < 1 && Math.abs(1.0 / minorTickSpace - inverse) < inverse * TICK_EPSILON;
+        for (long index = firstTick ; index <= lastTick ; index++) {
+            double value = useInverse ? index / inverse : index * minorTickSpace;
+            tickValues[noOfTicks] = value;
+            majorTicks[noOfTicks] = integral ? 0 == index % majorRatio : Math.abs(Math.IEEEremainder(value, majorTickSpace)) < majorTickSpace * TICK_EPSILON;
+            noOfTicks++;
+        }
+    }
+
+    // Decades are major ticks (every n-th decade for many decades), for up to MAX_NO_OF_MAJOR_TICKS decades their multiples 2 - 9 are minor ticks
+    private void calcLogTicks(final double MIN_VALUE, final double MAX_VALUE) {
+        double scaledMin     = toScale(MIN_VALUE);
+        double scaledMax     = toScale(MAX_VALUE);
+        int    majorDecades  = calcMajorDecades(scaledMax - scaledMin);
+        int    noOfMultiples = 1 == majorDecades ? 9 : 1;
+        double lowerLimit    = MIN_VALUE - Math.abs(MIN_VALUE) * TICK_EPSILON;
+        double upperLimit    = MAX_VALUE + Math.abs(MAX_VALUE) * TICK_EPSILON;
+        long   lastDecade    = (long) Math.floor(scaledMax + TICK_EPSILON);
+        for (long decade = (long) Math.floor(scaledMin) ; decade <= lastDecade && noOfTicks < MAX_NO_OF_TICKS ; decade++) {
+            double base = Math.pow(10, decade);
+            for (int multiple = 1 ; multiple <= noOfMultiples ; multiple++) {
+                double value = multiple * base;
+                if (value < lowerLimit) { continue; }
+                if (value > upperLimit) { break; }
+                addTick(value, 1 == multiple && 0 == Math.floorMod(decade, majorDecades));
+            }
+        }
+    }
+
+    private static int calcMajorDecades(final double SCALE_RANGE) { return (int) Math.max(1, Math.ceil(SCALE_RANGE / MAX_NO_OF_MAJOR_TICKS - TICK_EPSILON)); }
+
+    // Ticks are the calendar boundaries of the minor step, boundaries of the major step are major ticks
+    private void calcTimeTicks(final double MIN_VALUE, final double MAX_VALUE) {
+        TimeStep      majorStep = TimeStep.forRange(MAX_VALUE - MIN_VALUE, MAX_NO_OF_MAJOR_TICKS);
+        TimeStep      minorStep = majorStep.minor();
+        ZonedDateTime time      = minorStep.floor(Instant.ofEpochSecond((long) Math.floor(MIN_VALUE)).atZone(ZoneId.systemDefault()));
+        ticksTimeStep = majorStep;
+        while (noOfTicks < MAX_NO_OF_TICKS) {
+            double value = time.toEpochSecond();
+            if (value > MAX_VALUE) { break; }
+            if (value >= MIN_VALUE) { addTick(value, majorStep.isAligned(time)); }
+            time = minorStep.next(time);
+        }
+    }
+
+    private void addTick(final double VALUE, final boolean MAJOR) {
+        if (null == tickValues || noOfTicks == tickValues.length) {
+            int length = null == tickValues ? 64 : tickValues.length * 2;
+            tickValues      = null == tickValues ? new double[length] : Arrays.copyOf(tickValues, length);
+            majorTicks      = null == majorTicks ? new boolean[length] : Arrays.copyOf(majorTicks, length);
+            tickLabels      = null == tickLabels ? new String[length] : Arrays.copyOf(tickLabels, length);
+            spareTickLabels = new String[length];
+        }
+        tickValues[noOfTicks] = VALUE;
+        majorTicks[noOfTicks] = MAJOR;
+        tickLabels[noOfTicks] = null;
+        noOfTicks++;
+    }
+
+    // Returns the cached label of the tick with the given index
+    private String getTickLabel(final int INDEX) {
+        String label = tickLabels[INDEX];
+        if (null == label) {
+            double value = tickValues[INDEX];
+            if (AxisType.LOGARITHMIC == ticksType) {
+                label = formatLogLabel(value);
+            } else if (AxisType.TIME == ticksType) {
+                label = ticksTimeStep.format(value, ZoneId.systemDefault());
+            } else if (TickLabelFormat.TIME == getTickLabelFormat() && Orientation.HORIZONTAL == getOrientation()) {
+                label = Helper.secondsToHHMMString(Helper.toSeconds(Helper.toRealValue(value), Helper.getZoneOffset()));
+            } else {
+                label = tickLabelFormatter.format(value);
+            }
+            tickLabels[INDEX] = label;
+        }
+        return label;
+    }
+
+    // Decades from 0.0001 to 1000000 are written out, others as powers of ten like 1E-6
+    private String formatLogLabel(final double VALUE) {
+        int exponent = (int) Math.round(Math.log10(VALUE));
+        if (exponent < -4 || exponent > 6) { return "1E" + exponent; }
+        logLabelFormatter.setDecimals(Math.max(0, -exponent));
+        return logLabelFormatter.format(VALUE);
+    }
+
+    private void clearTickLabels() { if (null != tickLabels) { Arrays.fill(tickLabels, null); }}
+
     private boolean validateRange(final double MIN_VALUE, final double MAX_VALUE) {
         if (MAX_VALUE < MIN_VALUE) return false;
         if (MIN_VALUE > MAX_VALUE) return false;
@@ -842,40 +1105,100 @@ public class Axis extends Region {
         setMaxValue(niceMaxValue);
     }
 
+    // The tick spaces are in the scale of the axis, decades for logarithmic and seconds for time axes
     private void calcScale() {
         double maxNoOfMajorTicks = 10;
         double maxNoOfMinorTicks = 10;
 
-        setMajorTickSpace(Helper.calcNiceNumber(getRange() / (maxNoOfMajorTicks - 1), false));
-        setMinorTickSpace(Helper.calcNiceNumber(getMajorTickSpace() / (maxNoOfMinorTicks - 1), false));
+        switch(getType()) {
+            case LOGARITHMIC:
+                setMajorTickSpace(calcMajorDecades(getScaleRange()));
+                setMinorTickSpace(getMajorTickSpace());
+                break;
+            case TIME:
+                TimeStep timeStep = TimeStep.forRange(getRange(), MAX_NO_OF_MAJOR_TICKS);
+                setMajorTickSpace(timeStep.seconds);
+                setMinorTickSpace(timeStep.minor().seconds);
+                break;
+            case LINEAR:
+            default:
+                setMajorTickSpace(Helper.calcNiceNumber(getRange() / (maxNoOfMajorTicks - 1), false));
+                setMinorTickSpace(Helper.calcNiceNumber(getMajorTickSpace() / (maxNoOfMinorTicks - 1), false));
+                break;
+        }
     }
 
-    private double calcTextWidth(final Font FONT, final String TEXT) {
-        Text text = new Text(TEXT);
-        text.setFont(FONT);
-        double width = text.getBoundsInParent().getWidth();
-        text = null;
-        return width;
-    }
+    private double calcTextWidth(final Font FONT, final String TEXT) { return textWidthCache.getWidth(FONT, TEXT); }
 
 
     // ******************** Drawing *******************************************
     private void drawAxis() {
         if (Double.compare(stepSize, 0) <= 0) return;
 
-        ctx.clearRect(0, 0, width, height);
+        double  minValue       = getMinValue();
+        double  maxValue       = getMaxValue();
+        boolean panCacheActive = isPanCacheActive();
+        canvas.setWidth(panCacheActive && VERTICAL != getOrientation() ? 3 * width : width);
+        canvas.setHeight(panCacheActive && VERTICAL == getOrientation() ? 3 * height : height);
+        if (panCacheActive) {
+            // While panning with an unchanged scale the strip only has to be moved as long as it covers the visible range
+            // and zero stays inside or outside of it (the zero color depends on it)
+            boolean fullRange = minValue < 0 && maxValue > 0;
+            boolean reuse     = panning && minValue >= stripMinValue && maxValue <= stripMaxValue &&
+                                Math.abs(stepSize - stripStepSize) < stripStepSize * STRIP_TOLERANCE &&
+                                getMinorTickSpace() == stripMinorSpace && getMajorTickSpace() == stripMajorSpace && fullRange == stripFullRange;
+            if (!reuse) {
+                double range    = maxValue - minValue;
+                stripMinValue   = minValue - range;
+                stripMaxValue   = maxValue + range;
+                stripStepSize   = stepSize;
+                stripMinorSpace = getMinorTickSpace();
+                stripMajorSpace = getMajorTickSpace();
+                stripFullRange  = fullRange;
+                drawTicks(stripMinValue, stripMaxValue);
+                titleCtx.clearRect(0, 0, width, height);
+                drawTitle(titleCtx);
+            }
+            if (VERTICAL == getOrientation()) {
+                canvas.relocate(0, -(stripMaxValue - maxValue) * stripStepSize);
+            } else {
+                canvas.relocate(-(minValue - stripMinValue) * stripStepSize, 0);
+            }
+        } else {
+            stripStepSize = 0;
+            canvas.relocate(0, 0);
+            drawTicks(minValue, maxValue);
+            titleCtx.clearRect(0, 0, width, height);
+            drawTitle(ctx);
+        }
+    }
+
+    private boolean isPanCacheActive() {
+        double length = VERTICAL == getOrientation() ? height : width;
+        // The labels that are shown with onlyFirstAndLastTickLabelVisible change with every step while panning
+        return isPanCache() && !isAutoScale() && !isOnlyFirstAndLastTickLabelVisible() && Position.CENTER != getPosition() &&
+               AxisType.LINEAR == getType() && 3 * length <= MAX_STRIP_LENGTH;
+    }
+
+    // Draws the axis line, tick marks and tick labels for [MIN_VALUE, MAX_VALUE] with the current step size, first and last
+    // tick and the zero color refer to the visible range
+    private void drawTicks(final double MIN_VALUE, final double MAX_VALUE) {
+        ctx.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
         ctx.setFill(getAxisBackgroundColor());
-        ctx.fillRect(0, 0, width, height);
+        ctx.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
         ctx.setFont(tickLabelFont);
         ctx.setTextBaseline(VPos.CENTER);
 
-        AxisType    axisType                           = getType();
-        double      minValue                           = getMinValue();
-        double      maxValue                           = getMaxValue();
+        double      minValue                           = MIN_VALUE;
+        double      maxValue                           = MAX_VALUE;
+        // Positions are linear in the scale of the axis, e.g. in decades for logarithmic axes
+        double      scaledMin                          = toScale(minValue);
+        double      scaledMax                          = toScale(maxValue);
+        double      visibleMin                         = getScaleMin();
+        double      visibleMax                         = getScaleMax();
         boolean     tickLabelsVisible                  = getTickLabelsVisible();
         boolean     isOnlyFirstAndLastTickLabelVisible = isOnlyFirstAndLastTickLabelVisible();
         double      tickLabelFontSize                  = getTickLabelFontSize();
-        double      titleFontSize                      = getTitleFontSize();
         Color       tickLabelColor                     = getTickLabelColor();
         Color       zeroColor                          = getZeroColor();
         Color       majorTickMarkColor                 = getMajorTickMarkColor();
@@ -884,23 +1207,17 @@ public class Axis extends Region {
         boolean     minorTickMarksVisible              = getMinorTickMarksVisible();
         double      majorLineWidth                     = size * 0.007 < MIN_MAJOR_LINE_WIDTH ? MIN_MAJOR_LINE_WIDTH : size * 0.007;
         double      minorLineWidth                     = size * 0.005 < MIN_MINOR_LINE_WIDTH ? MIN_MINOR_LINE_WIDTH : size * 0.003;
-        double      minPosition;
-        double      maxPosition;
-        if (VERTICAL == getOrientation()) {
-            minPosition = 0;
-            maxPosition = height;
-        } else {
-            minPosition = 0;
-            maxPosition = width;
-        }
+        double      minPosition                        = 0;
+        double      maxPosition                        = (scaledMax - scaledMin) * stepSize;
 
-        Locale      locale            = getLocale();
         Orientation orientation       = getOrientation();
         Position    position          = getPosition();
         double      anchorX           = Position.LEFT == position ? 0 : getZeroPosition();
         double      anchorXPlusOffset = anchorX + width;
         double      anchorY           = Position.BOTTOM == position ? 0 : getZeroPosition();
         double      anchorYPlusOffset = anchorY + height;
+        // Offset of the visible range in the drawn range, the zero position is relative to the visible range
+        double      offset            = VERTICAL == orientation ? (scaledMax - visibleMax) * stepSize : (visibleMin - scaledMin) * stepSize;
         boolean     isMinValue;
         boolean     isZero;
         boolean     isMaxValue;
@@ -915,206 +1232,161 @@ public class Axis extends Region {
         double      maxTextWidth;
 
 
-        if (AxisType.LINEAR == axisType) {
-            // ******************** Linear ************************************
-            boolean    fullRange        = (minValue < 0 && maxValue > 0);
-            double     minorTickSpace   = getMinorTickSpace();
-            double     majorTickSpace   = getMajorTickSpace();
-            double     tmpStepSize      = minorTickSpace;
-            BigDecimal minorTickSpaceBD = BigDecimal.valueOf(minorTickSpace);
-            BigDecimal majorTickSpaceBD = BigDecimal.valueOf(majorTickSpace);
-            BigDecimal counterBD        = BigDecimal.valueOf(minValue);
-            double     counter          = minValue;
-            double     range            = getRange();
+        boolean    fullRange        = (getMinValue() < 0 && getMaxValue() > 0);
+        double     minorTickSpace   = getMinorTickSpace();
+        double     majorTickSpace   = getMajorTickSpace();
+        double     epsilon          = minorTickSpace * TICK_EPSILON;
+
+        ctx.setLineWidth(majorLineWidth);
+
+        // Draw axis
+        if (VERTICAL == orientation) {
+            switch(position) {
+                case LEFT : ctx.strokeLine(anchorXPlusOffset, minPosition, anchorXPlusOffset, maxPosition); break;
+                case RIGHT: ctx.strokeLine(anchorX, minPosition, anchorX, maxPosition); break;
+                default   : ctx.strokeLine(anchorX, minPosition, anchorX, maxPosition); break;
+            }
+        } else {
+            switch(position) {
+                case BOTTOM: ctx.strokeLine(minPosition, anchorY, maxPosition, anchorY); break;
+                case TOP   : ctx.strokeLine(minPosition, anchorYPlusOffset, maxPosition, anchorYPlusOffset); break;
+                default    : ctx.strokeLine(minPosition, anchorY, maxPosition, anchorY); break;
+            }
+        }
 
-            ctx.setLineWidth(majorLineWidth);
 
-            // Draw axis
+        // Main Loop for tick marks and labels
+        calcTicks(minValue, maxValue);
+        for (int tick = 0 ; tick < noOfTicks ; tick++) {
+            double value         = tickValues[tick];
+            double scaled        = toScale(value);
+            double fixedPosition = VERTICAL == orientation ? (scaledMax - scaled) * stepSize : (scaled - scaledMin) * stepSize;
             if (VERTICAL == orientation) {
-                switch(position) {
-                    case LEFT : ctx.strokeLine(anchorXPlusOffset, minPosition, anchorXPlusOffset, maxPosition); break;
-                    case RIGHT: ctx.strokeLine(anchorX, minPosition, anchorX, maxPosition); break;
-                    default   : ctx.strokeLine(anchorX, minPosition, anchorX, maxPosition); break;
+                if (Position.LEFT == position) {
+                    innerPointX  = anchorXPlusOffset - 0.15 * width;
+                    innerPointY  = fixedPosition;
+                    minorPointX  = anchorXPlusOffset - 0.05 * width;
+                    minorPointY  = fixedPosition;
+                    outerPointX  = anchorXPlusOffset;
+                    outerPointY  = fixedPosition;
+                    textPointX   = anchorXPlusOffset - 0.2 * width;
+                    textPointY   = fixedPosition;
+                    maxTextWidth = 0.6 * width;
+                } else if (Position.RIGHT == position) {
+                    innerPointX  = anchorX + 0.15 * width;
+                    innerPointY  = fixedPosition;
+                    minorPointX  = anchorX + 0.05 * width;
+                    minorPointY  = fixedPosition;
+                    outerPointX  = anchorX;
+                    outerPointY  = fixedPosition;
+                    textPointX   = anchorXPlusOffset - 0.15 * width;
+                    textPointY   = fixedPosition;
+                    maxTextWidth = 0.6 * width;
+                } else {
+                    innerPointX  = anchorX - 0.25 * width;
+                    innerPointY  = fixedPosition;
+                    minorPointX  = anchorX - 0.15 * width;
+                    minorPointY  = fixedPosition;
+                    outerPointX  = anchorX;
+                    outerPointY  = fixedPosition;
+                    textPointX   = anchorXPlusOffset;
+                    textPointY   = fixedPosition;
+                    maxTextWidth = 0.6 * width;
                 }
             } else {
-                switch(position) {
-                    case BOTTOM: ctx.strokeLine(minPosition, anchorY, maxPosition, anchorY); break;
-                    case TOP   : ctx.strokeLine(minPosition, anchorYPlusOffset, maxPosition, anchorYPlusOffset); break;
-                    default    : ctx.strokeLine(minPosition, anchorY, maxPosition, anchorY); break;
+                if (Position.BOTTOM == position) {
+                    innerPointX  = fixedPosition;
+                    innerPointY  = anchorY + 0.15 * height;
+                    minorPointX  = fixedPosition;
+                    minorPointY  = anchorY + 0.05 * height;
+                    outerPointX  = fixedPosition;
+                    outerPointY  = anchorY;
+                    textPointX   = fixedPosition;
+                    textPointY   = innerPointY + tickLabelFontSize * 0.6;
+                    maxTextWidth = majorTickSpace * stepSize;
+                } else if (Position.TOP == position) {
+                    innerPointX  = fixedPosition;
+                    innerPointY  = anchorYPlusOffset - 0.15 * height;
+                    minorPointX  = fixedPosition;
+                    minorPointY  = anchorYPlusOffset - 0.05 * height;
+                    outerPointX  = fixedPosition;
+                    outerPointY  = anchorYPlusOffset;
+                    textPointX   = fixedPosition;
+                    textPointY   = innerPointY - tickLabelFontSize * 0.6;
+                    maxTextWidth = majorTickSpace * stepSize;
+                } else {
+                    innerPointX  = fixedPosition;
+                    innerPointY  = anchorY - 0.25 * height;
+                    minorPointX  = fixedPosition;
+                    minorPointY  = anchorY - 0.15 * height;
+                    outerPointX  = fixedPosition;
+                    outerPointY  = anchorY;
+                    textPointX   = fixedPosition;
+                    textPointY   = anchorY + 0.2 * height;
+                    maxTextWidth = majorTickSpace * stepSize;
                 }
             }
 
 
-            // Main Loop for tick marks and labels
-            BigDecimal tmpStepBD = new BigDecimal(tmpStepSize);
-            tmpStepBD = tmpStepBD.setScale(12, BigDecimal.ROUND_HALF_UP);
-            double tmpStep = tmpStepBD.doubleValue();
-            int tickMarkCounter = 0;
-            for (double i = 0; Double.compare(-range - tmpStep, i) <= 0; i -= tmpStep) {
-                double fixedPosition = (counter - minValue) * stepSize;
-                if (VERTICAL == orientation) {
-                    if (Position.LEFT == position) {
-                        innerPointX  = anchorXPlusOffset - 0.15 * width;
-                        innerPointY  = fixedPosition;
-                        minorPointX  = anchorXPlusOffset - 0.05 * width;
-                        minorPointY  = fixedPosition;
-                        outerPointX  = anchorXPlusOffset;
-                        outerPointY  = fixedPosition;
-                        textPointX   = anchorXPlusOffset - 0.2 * width;
-                        textPointY   = fixedPosition;
-                        maxTextWidth = 0.6 * width;
-                    } else if (Position.RIGHT == position) {
-                        innerPointX  = anchorX + 0.15 * width;
-                        innerPointY  = fixedPosition;
-                        minorPointX  = anchorX + 0.05 * width;
-                        minorPointY  = fixedPosition;
-                        outerPointX  = anchorX;
-                        outerPointY  = fixedPosition;
-                        textPointX   = anchorXPlusOffset - 0.15 * width;
-                        textPointY   = fixedPosition;
-                        maxTextWidth = 0.6 * width;
-                    } else {
-                        innerPointX  = anchorX - 0.25 * width;
-                        innerPointY  = fixedPosition;
-                        minorPointX  = anchorX - 0.15 * width;
-                        minorPointY  = fixedPosition;
-                        outerPointX  = anchorX;
-                        outerPointY  = fixedPosition;
-                        textPointX   = anchorXPlusOffset;
-                        textPointY   = fixedPosition;
-                        maxTextWidth = 0.6 * width;
-                    }
-                } else {
-                    if (Position.BOTTOM == position) {
-                        innerPointX  = fixedPosition;
-                        innerPointY  = anchorY + 0.15 * height;
-                        minorPointX  = fixedPosition;
-                        minorPointY  = anchorY + 0.05 * height;
-                        outerPointX  = fixedPosition;
-                        outerPointY  = anchorY;
-                        textPointX   = fixedPosition;
-                        textPointY   = innerPointY + tickLabelFontSize * 0.6;
-                        maxTextWidth = majorTickSpace * stepSize;
-                    } else if (Position.TOP == position) {
-                        innerPointX  = fixedPosition;
-                        innerPointY  = anchorYPlusOffset - 0.15 * height;
-                        minorPointX  = fixedPosition;
-                        minorPointY  = anchorYPlusOffset - 0.05 * height;
-                        outerPointX  = fixedPosition;
-                        outerPointY  = anchorYPlusOffset;
-                        textPointX   = fixedPosition;
-                        textPointY   = innerPointY - tickLabelFontSize * 0.6;
-                        maxTextWidth = majorTickSpace * stepSize;
-                    } else {
-                        innerPointX  = fixedPosition;
-                        innerPointY  = anchorY - 0.25 * height;
-                        minorPointX  = fixedPosition;
-                        minorPointY  = anchorY - 0.15 * height;
-                        outerPointX  = fixedPosition;
-                        outerPointY  = anchorY;
-                        textPointX   = fixedPosition;
-                        textPointY   = anchorY + 0.2 * height;
-                        maxTextWidth = majorTickSpace * stepSize;
-                    }
-                }
+            if (majorTicks[tick]) {
+                // Draw major tick mark
+                isMinValue = Math.abs(scaled - visibleMin) < epsilon;
+                isMaxValue = Math.abs(scaled - visibleMax) < epsilon;
+                isZero     = 0.0 == value;
 
+                if (isZero) { setZeroPosition(fixedPosition - offset); }
 
-                if (Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(majorTickSpaceBD).doubleValue(), 0.0) == 0) {
-                    // Draw major tick mark
-                    isMinValue = Double.compare(minValue, counter) == 0;
-                    isMaxValue = Double.compare(maxValue, counter) == 0;
-                    if (VERTICAL == orientation) {
-                        isZero = Double.compare(0.0, maxValue - counter + minValue) == 0;
-                    } else {
-                        isZero = Double.compare(0.0, counter) == 0;
-                    }
-
-                    if (isZero) { setZeroPosition(fixedPosition); }
-
-                    if (majorTickMarksVisible) {
-                        drawTickMark((fullRange && isZero) ? zeroColor : majorTickMarkColor, majorLineWidth, innerPointX, innerPointY, outerPointX, outerPointY);
-                    } else if (minorTickMarksVisible) {
-                        drawTickMark((fullRange && isZero) ? zeroColor : minorTickMarkColor, minorLineWidth, minorPointX, minorPointY, outerPointX, outerPointY);
-                    }
-
-                    // Draw tick labels
-                    if (tickLabelsVisible && tickLabelFont.getSize() > 6) {
-                        String tickLabelString;
-                        if (TickLabelFormat.NUMBER == getTickLabelFormat()) {
-                            tickLabelString = Orientation.HORIZONTAL == orientation ? String.format(locale, tickLabelFormatString, (minValue - i)) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
-                        } else {
-                            tickLabelString = Orientation.HORIZONTAL == orientation ? Helper.secondsToHHMMString(Helper.toSeconds(Helper.toRealValue(minValue - i), Helper.getZoneOffset())) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
-                        }
-                        drawTickLabel(isOnlyFirstAndLastTickLabelVisible, isZero, isMinValue, isMaxValue, fullRange, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, tickLabelString, orientation);
-                    }
-                } else if (minorTickMarksVisible && Double.compare(counterBD.setScale(12, BigDecimal.ROUND_HALF_UP).remainder(minorTickSpaceBD).doubleValue(), 0.0) == 0) {
-                    // Draw minor tick mark
-                    drawTickMark(minorTickMarkColor, minorLineWidth, minorPointX, minorPointY, outerPointX, outerPointY);
-                } else if (tickMarkCounter % 10 == 0) {
-                    // Draw major tick mark based on number of tick marks
-                    isMinValue = Double.compare(minValue, counter) == 0;
-                    isMaxValue = Double.compare(maxValue, counter) == 0;
-                    if (VERTICAL == orientation) {
-                        isZero = Double.compare(0.0, maxValue - counter + minValue) == 0;
-                    } else {
-                        isZero = Double.compare(0.0, counter) == 0;
-                    }
-
-                    if (isZero) { setZeroPosition(fixedPosition); }
-
-                    drawTickMark((fullRange && isZero) ? zeroColor : minorTickMarkColor, minorLineWidth, innerPointX, innerPointY, outerPointX, outerPointY);
-
-                    // Draw tick labels
-                    if (tickLabelsVisible && tickLabelFontSize > 6) {
-                        String tickLabelString;
-                        if (TickLabelFormat.NUMBER == getTickLabelFormat()) {
-                            tickLabelString = Orientation.HORIZONTAL == orientation ? String.format(locale, tickLabelFormatString, (minValue - i)) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
-                        } else {
-                            tickLabelString = Orientation.HORIZONTAL == orientation ? Helper.secondsToHHMMString(Helper.toSeconds(Helper.toRealValue(minValue - i), Helper.getZoneOffset())) : String.format(locale, tickLabelFormatString, maxValue - counter + minValue);
-                        }
-                        drawTickLabel(isOnlyFirstAndLastTickLabelVisible, isZero, isMinValue, isMaxValue, fullRange, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, tickLabelString, orientation);
-                    }
-                } else if (tickMarkCounter % 1 == 0) {
-                    drawTickMark(minorTickMarkColor, minorLineWidth, minorPointX, minorPointY, outerPointX, outerPointY);
+                if (majorTickMarksVisible) {
+                    drawTickMark((fullRange && isZero) ? zeroColor : majorTickMarkColor, majorLineWidth, innerPointX, innerPointY, outerPointX, outerPointY);
+                } else if (minorTickMarksVisible) {
+                    drawTickMark((fullRange && isZero) ? zeroColor : minorTickMarkColor, minorLineWidth, minorPointX, minorPointY, outerPointX, outerPointY);
                 }
-                tickMarkCounter++;
 
-                counterBD = counterBD.add(minorTickSpaceBD);
-                counter = counterBD.doubleValue();
-                if (counter > maxValue) break;
+                // Draw tick labels
+                if (tickLabelsVisible && tickLabelFont.getSize() > 6) {
+                    String tickLabelString = getTickLabel(tick);
+                    drawTickLabel(isOnlyFirstAndLastTickLabelVisible, isZero, isMinValue, isMaxValue, fullRange, zeroColor, tickLabelColor, textPointX, textPointY, maxTextWidth, maxPosition, tickLabelString, orientation);
+                }
+            } else if (minorTickMarksVisible) {
+                // Draw minor tick mark
+                drawTickMark(minorTickMarkColor, minorLineWidth, minorPointX, minorPointY, outerPointX, outerPointY);
             }
         }
+    }
 
-        // Draw axis title
-        ctx.setFont(titleFont);
-        ctx.setFill(getTitleColor());
-        ctx.setTextAlign(TextAlignment.CENTER);
-        ctx.setTextBaseline(VPos.CENTER);
+    private void drawTitle(final GraphicsContext CTX) {
+        double      titleFontSize = getTitleFontSize();
+        Orientation orientation   = getOrientation();
+        Position    position      = getPosition();
+        CTX.setFont(titleFont);
+        CTX.setFill(getTitleColor());
+        CTX.setTextAlign(TextAlignment.CENTER);
+        CTX.setTextBaseline(VPos.CENTER);
         double titleWidth = calcTextWidth(titleFont, getTitle());
         if (Orientation.HORIZONTAL == orientation) {
             switch(position) {
                 case TOP:
-                    ctx.fillText(getTitle(), (width - titleWidth) * 0.5, titleFontSize * 0.5);
+                    CTX.fillText(getTitle(), (width - titleWidth) * 0.5, titleFontSize * 0.5);
                     break;
                 case BOTTOM:
-                    ctx.fillText(getTitle(), (width - titleWidth) * 0.5, height - titleFontSize * 0.5);
+                    CTX.fillText(getTitle(), (width - titleWidth) * 0.5, height - titleFontSize * 0.5);
                     break;
             }
         } else {
             switch(position) {
                 case LEFT:
-                    ctx.save();
-                    ctx.translate(titleFontSize * 0.5, (height - titleFontSize) * 0.5);
-                    ctx.rotate(270);
-                    ctx.fillText(getTitle(), 0, 0);
-                    ctx.restore();
+                    CTX.save();
+                    CTX.translate(titleFontSize * 0.5, (height - titleFontSize) * 0.5);
+                    CTX.rotate(270);
+                    CTX.fillText(getTitle(), 0, 0);
+                    CTX.restore();
                     break;
                 case RIGHT:
-                    ctx.save();
-                    ctx.translate(width - titleFontSize * 0.5, (height - titleFontSize) * 0.5);
-                    ctx.rotate(90);
-                    ctx.fillText(getTitle(), 0, 0);
-                    ctx.restore();
+                    CTX.save();
+                    CTX.translate(width - titleFontSize * 0.5, (height - titleFontSize) * 0.5);
+                    CTX.rotate(90);
+                    CTX.fillText(getTitle(), 0, 0);
+                    CTX.restore();
                     break;
             }
         }
@@ -1127,7 +1399,8 @@ public class Axis extends Region {
     }
 
     private void drawTickLabel(final boolean ONLY_FIRST_AND_LAST_VISIBLE, final boolean IS_ZERO, final boolean IS_MIN, final boolean IS_MAX, final boolean FULL_RANGE,
-                               final Color ZERO_COLOR, final Color COLOR, final double TEXT_X, final double TEXT_Y, final double MAX_WIDTH, final String TEXT, final Orientation ORIENTATION) {
+                               final Color ZERO_COLOR, final Color COLOR, final double TEXT_X, final double TEXT_Y, final double MAX_WIDTH, final double MAX_POSITION,
+                               final String TEXT, final Orientation ORIENTATION) {
         if (!ONLY_FIRST_AND_LAST_VISIBLE) {
             if (IS_ZERO) {
                 ctx.setFill(FULL_RANGE ? ZERO_COLOR : COLOR);
@@ -1152,8 +1425,8 @@ public class Axis extends Region {
             double textY;
             if (TEXT_Y < fontSize) {
                 textY = fontSize * 0.5;
-            } else if (TEXT_Y > height - fontSize) {
-                textY = height - fontSize * 0.5;
+            } else if (TEXT_Y > MAX_POSITION - fontSize) {
+                textY = MAX_POSITION - fontSize * 0.5;
             } else {
                 textY = TEXT_Y;
             }
@@ -1168,8 +1441,8 @@ public class Axis extends Region {
             }
 
             double tickLabelWidth = calcTextWidth(tickLabelFont, TEXT);
-            if (ctx.getTextAlign() == TextAlignment.CENTER && TEXT_X + tickLabelWidth * 0.5 > width) {
-                ctx.fillText(TEXT, width - tickLabelWidth * 0.5, TEXT_Y, MAX_WIDTH);
+            if (ctx.getTextAlign() == TextAlignment.CENTER && TEXT_X + tickLabelWidth * 0.5 > MAX_POSITION) {
+                ctx.fillText(TEXT, MAX_POSITION - tickLabelWidth * 0.5, TEXT_Y, MAX_WIDTH);
             } else {
                 ctx.fillText(TEXT, TEXT_X, TEXT_Y, MAX_WIDTH);
             }
@@ -1194,26 +1467,28 @@ public class Axis extends Region {
             if (VERTICAL == getOrientation()) {
                 width    = height * aspectRatio;
                 size     = width < height ? width : height;
-                stepSize = Math.abs(height / getRange());
+                stepSize = Math.abs(height / getScaleRange());
             } else {
                 height   = width / aspectRatio;
                 size     = width < height ? width : height;
-                stepSize = Math.abs(width / getRange());
+                stepSize = Math.abs(width / getScaleRange());
             }
             pane.setMaxSize(width, height);
             pane.setMinSize(width, height);
             pane.setPrefSize(width, height);
             pane.relocate((getWidth() - width) * 0.5, (getHeight() - height) * 0.5);
 
-            canvas.setWidth(width);
-            canvas.setHeight(height);
+            titleCanvas.setWidth(width);
+            titleCanvas.setHeight(height);
+            clip.setWidth(width);
+            clip.setHeight(height);
 
             redraw();
         }
     }
 
     protected void redraw() {
-        if (isAutoScale()) {
+        if (isAutoScale() && AxisType.LINEAR == getType()) {
             calcAutoScale();
         } else {
             calcScale();
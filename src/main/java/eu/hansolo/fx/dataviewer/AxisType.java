@@ -17,5 +17,5 @@
 package eu.hansolo.fx.dataviewer;
 
 public enum AxisType {
-    LINEAR
+    LINEAR, LOGARITHMIC, TIME
 }
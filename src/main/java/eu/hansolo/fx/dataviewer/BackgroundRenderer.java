@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer;
+
+import eu.hansolo.fx.dataviewer.Overlay.Decimation;
+import eu.hansolo.fx.dataviewer.Overlay.LineStyle;
+import eu.hansolo.fx.dataviewer.Overlay.Symbol;
+import eu.hansolo.fx.dataviewer.Overlay.SymbolThinning;
+import eu.hansolo.fx.dataviewer.tools.Decimator;
+import eu.hansolo.fx.dataviewer.tools.OccupancyGrid;
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.awt.BasicStroke;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Rasterizes overlays with RenderMode.BACKGROUND on a background executor.
+ * The geometry is transformed to screen coordinates and rendered with Java2D
+ * into vertical tiles of TILE_WIDTH pixels. Every finished tile is copied into
+ * a WritableImage and drawn to the canvas of the overlay on the FX thread.
+ * Starting a new render for an overlay cancels the one that is still in flight.
+ * All methods have to be called on the FX application thread.
+ */
+class BackgroundRenderer {
+    static final         int                  TILE_WIDTH = 256;
+    static final         ExecutorService      EXECUTOR   = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+        Thread thread = new Thread(runnable, "DataViewer-Renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private        final Map<Overlay, Job>    jobs;
+
+
+    // ******************** Constructors **************************************
+    BackgroundRenderer() {
+        jobs = new HashMap<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns true if the overlay can be rendered in the background, gradient
+     * fills are only supported by the immediate mode.
+     */
+    static boolean isSupported(final Overlay OVERLAY) { return !OVERLAY.isDoFill() || OVERLAY.getFill() instanceof Color; }
+
+    /**
+     * Renders the points [FROM, TO) of POINTS for the given overlay in the background.
+     * The first and last point of POINTS will be added to filled paths that have
+     * been culled to keep the closing edge. ON_FINISHED will be called on the FX
+     * thread once all tiles have been drawn.
+     */
+    void render(final Overlay OVERLAY, final Canvas CANVAS, final PointBuffer POINTS, final int FROM, final int TO, final double MIN_X, final double MIN_Y,
+                final double STEP_X, final double STEP_Y, final double SYMBOL_SIZE, final Runnable ON_FINISHED) {
+        cancel(OVERLAY);
+
+        // Take a snapshot of everything that is needed because the overlay might change while rendering
+        PointBuffer points     = POINTS;
+        int         noOfPoints = points.size();
+        boolean     culled     = FROM > 0 || TO < noOfPoints;
+        Frame       frame      = new Frame();
+        frame.width            = (int) Math.ceil(CANVAS.getWidth());
+        frame.height           = (int) Math.ceil(CANVAS.getHeight());
+        frame.minX             = MIN_X;
+        frame.minY             = MIN_Y;
+        frame.stepX            = STEP_X;
+        frame.stepY            = STEP_Y;
+        frame.points           = new PointBuffer(Math.max(0, TO - FROM));
+        frame.points.addAll(points.getXs(), points.getYs(), FROM, Math.max(0, TO - FROM));
+        frame.doFill           = OVERLAY.isDoFill();
+        frame.doStroke         = OVERLAY.isDoStroke() && LineStyle.EMPTY != OVERLAY.getLineStyle();
+        frame.closeWithEnds    = frame.doFill && culled;
+        frame.firstX           = noOfPoints > 0 ? points.getX(0) : 0;
+        frame.firstY           = noOfPoints > 0 ? points.getY(0) : 0;
+        frame.lastX            = noOfPoints > 0 ? points.getX(noOfPoints - 1) : 0;
+        frame.lastY            = noOfPoints > 0 ? points.getY(noOfPoints - 1) : 0;
+        frame.fill             = frame.doFill ? toAwtColor((Color) OVERLAY.getFill()) : null;
+        frame.stroke           = toAwtColor(OVERLAY.getStroke());
+        frame.lineStroke       = createStroke(OVERLAY.getLineStyle(), OVERLAY.getLineWidth());
+        frame.decimation       = OVERLAY.isXMonotonic() ? OVERLAY.getDecimation() : Decimation.NONE;
+        frame.symbol           = OVERLAY.isSymbolsVisible() ? OVERLAY.getSymbol() : Symbol.NONE;
+        frame.symbolColor      = toAwtColor(OVERLAY.getSymbolColor());
+        frame.symbolSize       = SYMBOL_SIZE;
+        frame.symbolThinning   = OVERLAY.getSymbolThinning();
+
+        if (frame.width <= 0 || frame.height <= 0) { return; }
+        Job job = new Job(CANVAS, ON_FINISHED);
+        jobs.put(OVERLAY, job);
+        job.add(EXECUTOR.submit(() -> prepare(job, frame)));
+    }
+
+    void cancel(final Overlay OVERLAY) {
+        Job job = jobs.remove(OVERLAY);
+        if (null != job) { job.cancel(); }
+    }
+
+    void cancelAll() {
+        jobs.values().forEach(Job::cancel);
+        jobs.clear();
+    }
+
+    boolean isRendering(final Overlay OVERLAY) { return jobs.containsKey(OVERLAY); }
+
+    // Transforms the points to screen coordinates and splits the work into tiles (background thread)
+    private void prepare(final Job JOB, final Frame FRAME) {
+        if (JOB.cancelled) { return; }
+        PointBuffer points = FRAME.points;
+        if ((FRAME.doFill || FRAME.doStroke) && points.size() > 0) {
+            PointBuffer linePoints = points;
+            int         columns    = FRAME.width;
+            if (points.size() > columns * 4) {
+                if (Decimation.M4 == FRAME.decimation) {
+                    linePoints = new PointBuffer();
+                    Decimator.m4(points, 0, points.size(), FRAME.minX, FRAME.stepX, columns, linePoints);
+                } else if (Decimation.LTTB == FRAME.decimation) {
+                    linePoints = new PointBuffer();
+                    Decimator.lttb(points, 0, points.size(), columns * 2, linePoints);
+                }
+            }
+            double[] xs   = linePoints.getXs();
+            double[] ys   = linePoints.getYs();
+            int      size = linePoints.size();
+            Path2D   path = new Path2D.Double(Path2D.WIND_NON_ZERO, size + 2);
+            if (FRAME.closeWithEnds) {
+                path.moveTo(screenX(FRAME, FRAME.firstX), screenY(FRAME, FRAME.firstY));
+            } else {
+                path.moveTo(screenX(FRAME, xs[0]), screenY(FRAME, ys[0]));
+            }
+            for (int i = FRAME.closeWithEnds ? 0 : 1 ; i < size ; i++) {
+                if (0 == (i & 0xFFFF) && JOB.cancelled) { return; }
+                path.lineTo(screenX(FRAME, xs[i]), screenY(FRAME, ys[i]));
+            }
+            if (FRAME.closeWithEnds) { path.lineTo(screenX(FRAME, FRAME.lastX), screenY(FRAME, FRAME.lastY)); }
+            if (FRAME.doFill) { path.closePath(); }
+            FRAME.path = path;
+        }
+
+        if (Symbol.NONE != FRAME.symbol) {
+            double[] xs   = points.getXs();
+            double[] ys   = points.getYs();
+            int      size = points.size();
+            FRAME.symbolXs = new double[size];
+            FRAME.symbolYs = new double[size];
+            for (int i = 0 ; i < size ; i++) {
+                FRAME.symbolXs[i] = screenX(FRAME, xs[i]);
+                FRAME.symbolYs[i] = screenY(FRAME, ys[i]);
+            }
+            if (SymbolThinning.NONE != FRAME.symbolThinning) { thinSymbols(FRAME); }
+        }
+
+        int noOfTiles = (FRAME.width + TILE_WIDTH - 1) / TILE_WIDTH;
+        JOB.remainingTiles = noOfTiles;
+        for (int tile = 0 ; tile < noOfTiles ; tile++) {
+            if (JOB.cancelled) { return; }
+            final int tileX = tile * TILE_WIDTH;
+            JOB.add(EXECUTOR.submit(() -> renderTile(JOB, FRAME, tileX)));
+        }
+    }
+
+    // Keeps only the first symbol per symbol sized cell, CLUSTER also keeps the number of symbols per cell (background thread)
+    private void thinSymbols(final Frame FRAME) {
+        OccupancyGrid grid = new OccupancyGrid();
+        grid.reset(FRAME.width, FRAME.height, FRAME.symbolSize);
+        for (int i = 0 ; i < FRAME.symbolXs.length ; i++) {
+            int cell = grid.cellIndex(FRAME.symbolXs[i], FRAME.symbolYs[i]);
+            if (cell >= 0) { grid.count(cell, i); }
+        }
+        int      noOfCells = grid.getNoOfOccupiedCells();
+        double[] symbolXs  = new double[noOfCells];
+        double[] symbolYs  = new double[noOfCells];
+        int[]    counts    = SymbolThinning.CLUSTER == FRAME.symbolThinning ? new int[noOfCells] : null;
+        for (int n = 0 ; n < noOfCells ; n++) {
+            int cell  = grid.getOccupiedCell(n);
+            int index = grid.getFirstIndex(cell);
+            symbolXs[n] = FRAME.symbolXs[index];
+            symbolYs[n] = FRAME.symbolYs[index];
+            if (null != counts) { counts[n] = grid.getCount(cell); }
+        }
+        FRAME.symbolXs     = symbolXs;
+        FRAME.symbolYs     = symbolYs;
+        FRAME.symbolCounts = counts;
+    }
+
+    // Rasterizes one vertical strip of the overlay (background thread)
+    private void renderTile(final Job JOB, final Frame FRAME, final int TILE_X) {
+        if (JOB.cancelled) { return; }
+        int           tileWidth = Math.min(TILE_WIDTH, FRAME.width - TILE_X);
+        BufferedImage tile      = new BufferedImage(tileWidth, FRAME.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D    g2        = tile.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g2.translate(-TILE_X, 0);
+        g2.clip(new Rectangle2D.Double(TILE_X, 0, tileWidth, FRAME.height));
+
+        if (null != FRAME.path) {
+            if (FRAME.doFill) {
+                g2.setColor(FRAME.fill);
+                g2.fill(FRAME.path);
+            }
+            if (FRAME.doStroke) {
+                g2.setColor(FRAME.stroke);
+                g2.setStroke(FRAME.lineStroke);
+                g2.draw(FRAME.path);
+            }
+        }
+
+        if (null != FRAME.symbolXs) {
+            double halfSymbolSize = FRAME.symbolSize * 0.5;
+            double left           = TILE_X - FRAME.symbolSize;
+            double right          = TILE_X + tileWidth + FRAME.symbolSize;
+            g2.setColor(FRAME.symbolColor);
+            g2.setStroke(new BasicStroke(1f));
+            for (int i = 0 ; i < FRAME.symbolXs.length ; i++) {
+                double x = FRAME.symbolXs[i];
+                if (x < left || x > right) { continue; }
+                drawSymbol(g2, x, FRAME.symbolYs[i], FRAME.symbol, FRAME.symbolSize, halfSymbolSize);
+            }
+            if (null != FRAME.symbolCounts) {
+                g2.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, (int) Math.max(8, FRAME.symbolSize)));
+                for (int i = 0 ; i < FRAME.symbolXs.length ; i++) {
+                    double x = FRAME.symbolXs[i];
+                    if (FRAME.symbolCounts[i] < 2 || x < left || x > right) { continue; }
+                    g2.drawString(Integer.toString(FRAME.symbolCounts[i]), (float) (x + halfSymbolSize), (float) (FRAME.symbolYs[i] - halfSymbolSize));
+                }
+            }
+        }
+        g2.dispose();
+        if (JOB.cancelled) { return; }
+
+        int[]         pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+        WritableImage image  = new WritableImage(tileWidth, FRAME.height);
+        image.getPixelWriter().setPixels(0, 0, tileWidth, FRAME.height, PixelFormat.getIntArgbPreInstance(), pixels, 0, tileWidth);
+
+        Platform.runLater(() -> {
+            if (JOB.cancelled) { return; }
+            GraphicsContext ctx = JOB.canvas.getGraphicsContext2D();
+            ctx.clearRect(TILE_X, 0, tileWidth, FRAME.height);
+            ctx.drawImage(image, TILE_X, 0);
+            JOB.remainingTiles--;
+            if (0 == JOB.remainingTiles) {
+                jobs.values().remove(JOB);
+                JOB.onFinished.run();
+            }
+        });
+    }
+
+    private static void drawSymbol(final Graphics2D G2, final double X, final double Y, final Symbol SYMBOL, final double SYMBOL_SIZE, final double HALF_SIZE) {
+        switch(SYMBOL) {
+            case BOX                 : G2.draw(new Rectangle2D.Double(X - HALF_SIZE, Y - HALF_SIZE, SYMBOL_SIZE, SYMBOL_SIZE)); break;
+            case BOX_FILLED          : G2.fill(new Rectangle2D.Double(X - HALF_SIZE, Y - HALF_SIZE, SYMBOL_SIZE, SYMBOL_SIZE)); break;
+            case CIRCLE              : G2.draw(new Ellipse2D.Double(X - HALF_SIZE, Y - HALF_SIZE, SYMBOL_SIZE, SYMBOL_SIZE)); break;
+            case CIRCLE_FILLED       : G2.fill(new Ellipse2D.Double(X - HALF_SIZE, Y - HALF_SIZE, SYMBOL_SIZE, SYMBOL_SIZE)); break;
+            case CROSS               :
+                G2.draw(new Line2D.Double(X - HALF_SIZE, Y - HALF_SIZE, X + HALF_SIZE, Y + HALF_SIZE));
+                G2.draw(new Line2D.Double(X - HALF_SIZE, Y + HALF_SIZE, X + HALF_SIZE, Y - HALF_SIZE));
+                break;
+            case PLUS                :
+                G2.draw(new Line2D.Double(X - HALF_SIZE, Y, X + HALF_SIZE, Y));
+                G2.draw(new Line2D.Double(X, Y - HALF_SIZE, X, Y + HALF_SIZE));
+                break;
+            case STAR                : G2.draw(createStar(X, Y, 5, HALF_SIZE, HALF_SIZE * 0.4)); break;
+            case STAR_FILLED         : G2.fill(createStar(X, Y, 5, SYMBOL_SIZE * 0.75, SYMBOL_SIZE * 0.3)); break;
+            case TRIANGLE_UP         : G2.draw(createTriangle(X, Y - HALF_SIZE, X + HALF_SIZE, Y + HALF_SIZE, X - HALF_SIZE, Y + HALF_SIZE)); break;
+            case TRIANGLE_UP_FILLED  : G2.fill(createTriangle(X, Y - HALF_SIZE, X + HALF_SIZE, Y + HALF_SIZE, X - HALF_SIZE, Y + HALF_SIZE)); break;
+            case TRIANGLE_DOWN       : G2.draw(createTriangle(X, Y + HALF_SIZE, X - HALF_SIZE, Y - HALF_SIZE, X + HALF_SIZE, Y - HALF_SIZE)); break;
+            case TRIANGLE_DOWN_FILLED: G2.fill(createTriangle(X, Y + HALF_SIZE, X - HALF_SIZE, Y - HALF_SIZE, X + HALF_SIZE, Y - HALF_SIZE)); break;
+            case NONE                :
+            default                  : break;
+        }
+    }
+
+    private static Path2D createTriangle(final double X1, final double Y1, final double X2, final double Y2, final double X3, final double Y3) {
+        Path2D path = new Path2D.Double();
+        path.moveTo(X1, Y1);
+        path.lineTo(X2, Y2);
+        path.lineTo(X3, Y3);
+        path.closePath();
+        return path;
+    }
+
+    private static Path2D createStar(final double CENTER_X, final double CENTER_Y, final int SPIKES, final double OUTER_RADIUS, final double INNER_RADIUS) {
+        double rot  = Math.PI / 2 * 3;
+        double step = Math.PI / SPIKES;
+        Path2D path = new Path2D.Double();
+        path.moveTo(CENTER_X, CENTER_Y - OUTER_RADIUS);
+        for (int i = 0 ; i < SPIKES ; i++) {
+            path.lineTo(CENTER_X + Math.cos(rot) * OUTER_RADIUS, CENTER_Y + Math.sin(rot) * OUTER_RADIUS);
+            rot += step;
+            path.lineTo(CENTER_X + Math.cos(rot) * INNER_RADIUS, CENTER_Y + Math.sin(rot) * INNER_RADIUS);
+            rot += step;
+        }
+        path.closePath();
+        return path;
+    }
+
+    // Same dash patterns as used for the canvas in the immediate mode
+    private static BasicStroke createStroke(final LineStyle LINE_STYLE, final double LINE_WIDTH) {
+        float width = (float) LINE_WIDTH;
+        switch(LINE_STYLE) {
+            case DASHED     : return new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[] { width * 3 }, 0f);
+            case DOTTED     : return new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[] { width }, 0f);
+            case DASH_DOTTED: return new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[] { width * 3, width * 3, width, width * 3 }, 0f);
+            case SOLID      :
+            default         : return new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f);
+        }
+    }
+
+    private static java.awt.Color toAwtColor(final Color COLOR) {
+        return new java.awt.Color((float) COLOR.getRed(), (float) COLOR.getGreen(), (float) COLOR.getBlue(), (float) COLOR.getOpacity());
+    }
+
+    private static double screenX(final Frame FRAME, final double X) { return (X - FRAME.minX) * FRAME.stepX; }
+
+    private static double screenY(final Frame FRAME, final double Y) { return FRAME.height - (Y - FRAME.minY) * FRAME.stepY; }
+
+
+    // ******************** Inner Classes *************************************
+    private static class Frame {
+        private int            width;
+        private int            height;
+        private double         minX;
+        private double         minY;
+        private double         stepX;
+        private double         stepY;
+        private PointBuffer    points;
+        private boolean        doFill;
+        private boolean        doStroke;
+        private boolean        closeWithEnds;
+        private double         firstX;
+        private double         firstY;
+        private double         lastX;
+        private double         lastY;
+        private java.awt.Color fill;
+        private java.awt.Color stroke;
+        private BasicStroke    lineStroke;
+        private Decimation     decimation;
+        private Symbol         symbol;
+        private java.awt.Color symbolColor;
+        private double         symbolSize;
+        private SymbolThinning symbolThinning;
+        private Path2D         path;
+        private double[]       symbolXs;
+        private double[]       symbolYs;
+        private int[]          symbolCounts;
+    }
+
+    private static class Job {
+        private final    Canvas            canvas;
+        private final    Runnable          onFinished;
+        private final    List<Future<?>>   futures;
+        private volatile boolean           cancelled;
+        private volatile int               remainingTiles;
+
+        Job(final Canvas CANVAS, final Runnable ON_FINISHED) {
+            canvas     = CANVAS;
+            onFinished = ON_FINISHED;
+            futures    = new ArrayList<>();
+        }
+
+        synchronized void add(final Future<?> FUTURE) {
+            if (cancelled) {
+                FUTURE.cancel(false);
+            } else {
+                futures.add(FUTURE);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            futures.forEach(future -> future.cancel(false));
+            futures.clear();
+        }
+    }
+}
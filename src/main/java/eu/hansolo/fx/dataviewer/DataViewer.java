@@ -16,17 +16,30 @@
 
 package eu.hansolo.fx.dataviewer;
 
+import eu.hansolo.fx.dataviewer.Overlay.Decimation;
+import eu.hansolo.fx.dataviewer.Overlay.LineStyle;
+import eu.hansolo.fx.dataviewer.Overlay.RenderMode;
 import eu.hansolo.fx.dataviewer.Overlay.Symbol;
+import eu.hansolo.fx.dataviewer.Overlay.SymbolThinning;
 import eu.hansolo.fx.dataviewer.ToolButton.Tool;
 import eu.hansolo.fx.dataviewer.event.DataViewerEvent;
 import eu.hansolo.fx.dataviewer.event.DataViewerEvent.Type;
 import eu.hansolo.fx.dataviewer.event.DataViewerEventListener;
+import eu.hansolo.fx.dataviewer.event.OverlayEvent;
 import eu.hansolo.fx.dataviewer.event.OverlayEventListener;
 import eu.hansolo.fx.dataviewer.font.Fonts;
+import eu.hansolo.fx.dataviewer.tiles.TileSource;
 import eu.hansolo.fx.dataviewer.tools.CtxBounds;
 import eu.hansolo.fx.dataviewer.tools.CtxDimension;
+import eu.hansolo.fx.dataviewer.tools.DecimalFormatter;
+import eu.hansolo.fx.dataviewer.tools.Decimator;
 import eu.hansolo.fx.dataviewer.tools.Helper;
+import eu.hansolo.fx.dataviewer.tools.OccupancyGrid;
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import eu.hansolo.fx.dataviewer.tools.PointSource;
+import eu.hansolo.fx.dataviewer.tools.ScreenTransform;
 import eu.hansolo.fx.dataviewer.tools.ShapeConverter;
+import javafx.animation.AnimationTimer;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
@@ -71,30 +84,47 @@ import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
-import javafx.util.Pair;
 
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntToDoubleFunction;
 
 
 @DefaultProperty("children")
 public class DataViewer extends Region {
-    private static final double                                         PREFERRED_WIDTH  = 1024;
-    private static final double                                         PREFERRED_HEIGHT = 600;
-    private static final double                                         MINIMUM_WIDTH    = 50;
-    private static final double                                         MINIMUM_HEIGHT   = 50;
-    private static final double                                         MAXIMUM_WIDTH    = 4096;
-    private static final double                                         MAXIMUM_HEIGHT   = 4096;
-    private static final int                                            MAX_DECIMALS     = 10;
-    private static final double                                         TOP              = 10;
-    private static final double                                         RIGHT            = 10;
-    private static final double                                         BOTTOM           = 10;
-    private static final double                                         LEFT             = 10;
-    private static final int                                            MIN_ZOOM_LEVEL   = 1;
-    private static final int                                            MAX_ZOOM_LEVEL   = 25;
+    private enum Layer { IMAGE, GRID, OVERLAYS, AXIS, OVERVIEW, CROSSHAIR }
+
+    private static final double                                         PREFERRED_WIDTH      = 1024;
+    private static final double                                         PREFERRED_HEIGHT     = 600;
+    private static final double                                         MINIMUM_WIDTH        = 50;
+    private static final double                                         MINIMUM_HEIGHT       = 50;
+    private static final double                                         MAXIMUM_WIDTH        = 4096;
+    private static final double                                         MAXIMUM_HEIGHT       = 4096;
+    private static final int                                            MAX_DECIMALS         = 10;
+    private static final double                                         TOP                  = 10;
+    private static final double                                         RIGHT                = 10;
+    private static final double                                         BOTTOM               = 10;
+    private static final double                                         LEFT                 = 10;
+    private static final int                                            MIN_ZOOM_LEVEL       = 1;
+    private static final int                                            MAX_ZOOM_LEVEL       = 25;
+    private static final int                                            DECIMATION_THRESHOLD = 4;
+    private static final int                                            PYRAMID_THRESHOLD    = 100_000;
+    private static final int                                            PARALLEL_THRESHOLD   = 50_000;
+    private static final int                                            POLYLINE_CHUNK_SIZE  = 8_192;
+    private static final int                                            SOURCE_CHUNK_SIZE    = 262_144;
     private              double                                         size;
     private              double                                         width;
     private              double                                         height;
@@ -106,8 +136,11 @@ public class DataViewer extends Region {
     private              CtxDimension                                   selectedArea;
     private              Rectangle                                      chartBackgroundRect;
     private              ImageView                                      imageView;
+    private              Canvas                                         canvasTiles;
+    private              TileRenderer                                   tileRenderer;
+    private              Pane                                           overlayLayer;
+    private              Map<Overlay, Canvas>                           overlayCanvases;
     private              Canvas                                         canvasOverlays;
-    private              GraphicsContext                                ctxOverlays;
     private              Canvas                                         canvasGrid;
     private              GraphicsContext                                ctxGrid;
     private              ToggleGroup                                    toggleGroup;
@@ -135,6 +168,8 @@ public class DataViewer extends Region {
     private              Pane                                           pane;
     private              Image                                          _image;
     private              ObjectProperty<Image>                          image;
+    private              TileSource                                     _tileSource;
+    private              ObjectProperty<TileSource>                     tileSource;
     private              boolean                                        _toolboxVisible;
     private              BooleanProperty                                toolboxVisible;
     private              Pos                                            _toolboxPosition;
@@ -191,13 +226,16 @@ public class DataViewer extends Region {
     private              ObjectProperty<Pos>                            overviewPosition;
     private              int                                            _decimals;
     private              IntegerProperty                                decimals;
+    private              int                                            _parallelTransformThreshold;
+    private              IntegerProperty                                parallelTransformThreshold;
     private              Locale                                         _locale;
     private              ObjectProperty<Locale>                         locale;
     private              int                                            _xAxisDecimals;
     private              IntegerProperty                                xAxisDecimals;
     private              int                                            _yAxisDecimals;
     private              IntegerProperty                                yAxisDecimals;
-    private              String                                         formatString;
+    private              DecimalFormatter                               valueFormatter;
+    private              StringBuilder                                  coordinatesBuilder;
     private              EventHandler<MouseEvent>                       mouseHandler;
     private              EventHandler<MouseEvent>                       zoomInHandler;
     private              EventHandler<MouseEvent>                       zoomOutHandler;
@@ -250,6 +288,28 @@ public class DataViewer extends Region {
     private              Position                                       _yAxisPosition;
     private              ObjectProperty<Position>                       yAxisPosition;
     private              OverlayEventListener                           overlayListener;
+    private              PointBuffer                                    decimatedPoints;
+    private              PointBuffer                                    pyramidPoints;
+    private              PointBuffer                                    sourcePoints;
+    private              PointBuffer                                    scaledPoints;
+    private              double[]                                       screenXs;
+    private              double[]                                       screenYs;
+    private              double[]                                       chunkXs;
+    private              double[]                                       chunkYs;
+    private              EnumSet<Layer>                                 dirtyLayers;
+    private              Map<Overlay, int[]>                            pendingAppends;
+    private              Set<Overlay>                                   dirtyOverlays;
+    private              Set<Overlay>                                   staleOverlays;
+    private              BackgroundRenderer                             backgroundRenderer;
+    private              DensityRenderer                                densityRenderer;
+    private              OverlayLoader                                  overlayLoader;
+    private              SymbolCache                                    symbolCache;
+    private              OccupancyGrid                                  occupancyGrid;
+    private              AnimationTimer                                 redrawTimer;
+    private              boolean                                        redrawScheduled;
+    private              int                                            updateDepth;
+    private              double                                         crossHairX;
+    private              double                                         crossHairY;
 
 
     // ******************** Constructors **************************************
@@ -282,12 +342,14 @@ public class DataViewer extends Region {
         _overviewVisible      = true;
         _overviewPosition     = Pos.BOTTOM_RIGHT;
         _decimals             = 0;
+        _parallelTransformThreshold = PARALLEL_THRESHOLD;
         _locale               = Locale.US;
         _xAxisDecimals        = 0;
         _yAxisDecimals        = 0;
         _xAxisLabel           = "";
         _yAxisLabel           = "";
-        formatString          = "%.0f";
+        valueFormatter        = new DecimalFormatter(_decimals, _locale);
+        coordinatesBuilder    = new StringBuilder();
         zoomFactorX           = 1.0;
         zoomFactorY           = 1.0;
         zoomLevelX            = 1.0;
@@ -297,7 +359,15 @@ public class DataViewer extends Region {
         zoomStepY             = 0.1;
         initialImageWidth     = -1;
         initialImageHeight    = -1;
-        overlays              = new LinkedList<>();
+        overlays              = new ArrayList<>();
+        decimatedPoints       = new PointBuffer();
+        pyramidPoints         = new PointBuffer();
+        sourcePoints          = new PointBuffer();
+        scaledPoints          = new PointBuffer();
+        screenXs              = new double[0];
+        screenYs              = new double[0];
+        chunkXs               = new double[POLYLINE_CHUNK_SIZE];
+        chunkYs               = new double[POLYLINE_CHUNK_SIZE];
         _overlaysVisible      = true;
         _toolboxVisible       = true;
         _toolboxPosition      = Pos.TOP_RIGHT;
@@ -315,7 +385,32 @@ public class DataViewer extends Region {
         _xAxisPosition        = Position.BOTTOM;
         _yAxisPosition        = Position.LEFT;
         listeners             = new CopyOnWriteArrayList<>();
-        overlayListener       = e -> redraw();
+        dirtyLayers           = EnumSet.noneOf(Layer.class);
+        pendingAppends        = new LinkedHashMap<>();
+        dirtyOverlays         = new LinkedHashSet<>();
+        staleOverlays         = new LinkedHashSet<>();
+        overlayCanvases       = new LinkedHashMap<>();
+        backgroundRenderer    = new BackgroundRenderer();
+        densityRenderer       = new DensityRenderer();
+        overlayLoader         = new OverlayLoader();
+        symbolCache           = new SymbolCache();
+        occupancyGrid         = new OccupancyGrid();
+        redrawTimer           = new AnimationTimer() {
+            @Override public void handle(final long NOW) {
+                stop();
+                redrawScheduled = false;
+                drawDirtyLayers();
+            }
+        };
+        overlayListener       = e -> {
+            Overlay overlay = (Overlay) e.getSource();
+            switch(e.getType()) {
+                case APPEND    : scheduleAppend(overlay, e.getFromIndex(), e.getNoOfEvicted()); break;
+                case VISIBILITY: updateOverlayVisibility(overlay); break;
+                case UPDATE    :
+                default        : scheduleRedraw(overlay); break;
+            }
+        };
 
         mouseHandler   = e -> {
             double    x         = e.getX();
@@ -323,8 +418,11 @@ public class DataViewer extends Region {
             double[]  values    = getChartCoordinatesFromXY(x, y);
             double    valueX    = values[0];
             double    valueY    = values[1];
-            String    text      = String.format(getLocale(), formatString, valueX) + ", " + String.format(getLocale(), formatString, valueY);
-            coordinatesText.setText(text);
+            valueFormatter.setLocale(getLocale());
+            coordinatesBuilder.setLength(0);
+            valueFormatter.append(coordinatesBuilder, valueX).append(", ");
+            valueFormatter.append(coordinatesBuilder, valueY);
+            coordinatesText.setText(coordinatesBuilder.toString());
             double    textWidth = coordinatesText.getLayoutBounds().getWidth();
             double    textX;
             double    textY;
@@ -399,6 +497,11 @@ public class DataViewer extends Region {
         imageView = new ImageView();
         imageView.setSmooth(true);
 
+        // Tiles of a TileSource are drawn instead of the image view
+        canvasTiles = new Canvas(chartArea.getWidth(), chartArea.getHeight());
+        canvasTiles.setMouseTransparent(true);
+        tileRenderer = new TileRenderer(canvasTiles, () -> scheduleRedraw(Layer.IMAGE));
+
         overviewRect = new Rectangle();
         overviewRect.setFill(Color.TRANSPARENT);
         overviewRect.setStroke(getOverviewRectColor());
@@ -415,8 +518,12 @@ public class DataViewer extends Region {
         canvasGrid.setMouseTransparent(true);
         ctxGrid = canvasGrid.getGraphicsContext2D();
 
+        // Every overlay is drawn on it's own canvas in this layer
+        overlayLayer = new Pane();
+        overlayLayer.setMouseTransparent(true);
+
+        // Transparent canvas on top of the overlays that handles the mouse interaction
         canvasOverlays = new Canvas(chartArea.getWidth(), chartArea.getHeight());
-        ctxOverlays    = canvasOverlays.getGraphicsContext2D();
 
         crossHairHorizontal = new Line();
         crossHairHorizontal.setStroke(getCrossHairColor());
@@ -464,7 +571,7 @@ public class DataViewer extends Region {
         selectionTextWValue = createInfoText("-", Color.rgb(180, 180, 180));
         selectionTextHValue = createInfoText("-", Color.rgb(180, 180, 180));
 
-        pane = new Pane(xAxis, yAxis, chartBackgroundRect, imageView, canvasGrid, overviewRect, viewportRect, canvasOverlays, selectionRect, toolBox,
+        pane = new Pane(xAxis, yAxis, chartBackgroundRect, imageView, canvasTiles, canvasGrid, overviewRect, viewportRect, overlayLayer, canvasOverlays, selectionRect, toolBox,
                         coordinatesText, crossHairHorizontal, crossHairVertical, centerCrossHorizontal, centerCrossVertical,
                         infoBox, selectionTextX, selectionTextXValue, selectionTextY, selectionTextYValue, selectionTextW, selectionTextWValue, selectionTextH, selectionTextHValue);
 
@@ -483,6 +590,14 @@ public class DataViewer extends Region {
         //zoomInTool.addEventHandler(MouseEvent.MOUSE_PRESSED, zoomInHandler);
         //zoomOutTool.addEventHandler(MouseEvent.MOUSE_PRESSED, zoomOutHandler);
         selectTool.selectedProperty().addListener(o -> showInfoBox(selectTool.isSelected()));
+        xAxis.typeProperty().addListener(o -> {
+            recalc();
+            scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
+        });
+        yAxis.typeProperty().addListener(o -> {
+            recalc();
+            scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
+        });
 
         // Resize once the control is shown on the screen to apply
         // settings that have been modified before the control was visible
@@ -539,6 +654,32 @@ public class DataViewer extends Region {
         return image;
     }
 
+    /**
+     * A TileSource can be used instead of an image for very large images. Only the
+     * tiles that intersect the visible part of the image will be loaded at the
+     * pyramid level that matches the current zoom.
+     */
+    public TileSource getTileSource() { return null == tileSource ? _tileSource : tileSource.get(); }
+    public void setTileSource(final TileSource SOURCE) {
+        if (null == tileSource) {
+            _tileSource = SOURCE;
+            updateTileSource(SOURCE);
+        } else {
+            tileSource.set(SOURCE);
+        }
+    }
+    public ObjectProperty<TileSource> tileSourceProperty() {
+        if (null == tileSource) {
+            tileSource = new ObjectPropertyBase<TileSource>(_tileSource) {
+                @Override protected void invalidated() { updateTileSource(get()); }
+                @Override public Object getBean() { return DataViewer.this; }
+                @Override public String getName() { return "tileSource"; }
+            };
+            _tileSource = null;
+        }
+        return tileSource;
+    }
+
     public boolean isToolboxVisible() { return null == toolboxVisible ? _toolboxVisible : toolboxVisible.get(); }
     public void setToolboxVisible(final boolean VISIBLE) {
         if (null == toolboxVisible) {
@@ -563,7 +704,7 @@ public class DataViewer extends Region {
     public void setToolboxPosition(final Pos POSITION) {
         if (null == toolboxPosition) {
             _toolboxPosition = POSITION;
-            redraw();
+            scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
         } else {
             toolboxPosition.set(POSITION);
         }
@@ -571,7 +712,7 @@ public class DataViewer extends Region {
     public ObjectProperty<Pos> toolboxPositionProperty() {
         if (null == toolboxPosition) {
             toolboxPosition = new ObjectPropertyBase<Pos>(_toolboxPosition) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { scheduleRedraw(Layer.GRID, Layer.OVERLAYS); }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "toolboxPosition"; }
             };
@@ -734,7 +875,7 @@ public class DataViewer extends Region {
             _centerCrossVisible = VISIBLE;
             centerCrossHorizontal.setVisible(VISIBLE);
             centerCrossVertical.setVisible(VISIBLE);
-            redraw();
+            scheduleRedraw(Layer.GRID);
         } else {
             centerCrossVisible.set(VISIBLE);
         }
@@ -745,7 +886,7 @@ public class DataViewer extends Region {
                 @Override protected void invalidated() {
                     centerCrossHorizontal.setVisible(get());
                     centerCrossVertical.setVisible(get());
-                    redraw();
+                    scheduleRedraw(Layer.GRID);
                 }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "centerCrossVisible"; }
@@ -931,7 +1072,7 @@ public class DataViewer extends Region {
     public void setAxisTextColor(final Color COLOR) {
         if (null == axisTextColor) {
             _axisTextColor = COLOR;
-            drawAxis();
+            scheduleRedraw(Layer.AXIS);
         } else {
             axisTextColor.set(COLOR);
         }
@@ -939,7 +1080,7 @@ public class DataViewer extends Region {
     public ObjectProperty<Color> axisTextColorProperty() {
         if (null == axisTextColor) {
             axisTextColor = new ObjectPropertyBase<Color>(_axisTextColor) {
-                @Override protected void invalidated() { drawAxis(); }
+                @Override protected void invalidated() { scheduleRedraw(Layer.AXIS); }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "axisTextColor"; }
             };
@@ -952,7 +1093,7 @@ public class DataViewer extends Region {
     public void setAxisColor(final Color COLOR) {
         if (null == axisColor) {
             _axisColor = COLOR;
-            drawAxis();
+            scheduleRedraw(Layer.AXIS);
         } else {
             axisColor.set(COLOR);
         }
@@ -960,7 +1101,7 @@ public class DataViewer extends Region {
     public ObjectProperty<Color> axisColorProperty() {
         if (null == axisColor) {
             axisColor = new ObjectPropertyBase<Color>(_axisColor) {
-                @Override protected void invalidated() { drawAxis(); }
+                @Override protected void invalidated() { scheduleRedraw(Layer.AXIS); }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "axisColor"; }
             };
@@ -973,7 +1114,7 @@ public class DataViewer extends Region {
     public void setAxisBackgroundColor(final Color COLOR) {
         if (null == axisBackgroundColor) {
             _axisBackgroundColor = COLOR;
-            drawAxis();
+            scheduleRedraw(Layer.AXIS);
         } else {
             axisBackgroundColor.set(COLOR);
         }
@@ -981,7 +1122,7 @@ public class DataViewer extends Region {
     public ObjectProperty<Color> axisBackgroundColorProperty() {
         if (null == axisBackgroundColor) {
             axisColor = new ObjectPropertyBase<Color>(_axisBackgroundColor) {
-                @Override protected void invalidated() { drawAxis(); }
+                @Override protected void invalidated() { scheduleRedraw(Layer.AXIS); }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "axisBackgroundColor"; }
             };
@@ -1099,7 +1240,7 @@ public class DataViewer extends Region {
     public void setOverviewPosition(final Pos POSITION) {
         if (null == overviewPosition) {
             _overviewPosition = POSITION;
-            redraw();
+            scheduleRedraw(Layer.OVERVIEW);
         } else {
             overviewPosition.set(POSITION);
         }
@@ -1107,7 +1248,7 @@ public class DataViewer extends Region {
     public ObjectProperty<Pos> overviewPositionProperty() {
         if (null == overviewPosition) {
             overviewPosition = new ObjectPropertyBase<Pos>(_overviewPosition) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { scheduleRedraw(Layer.OVERVIEW); }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "overviewPosition"; }
             };
@@ -1120,7 +1261,7 @@ public class DataViewer extends Region {
     public void setDecimals(final int DECIMALS) {
         if (null == decimals) {
             _decimals = Helper.clamp(0, MAX_DECIMALS, DECIMALS);
-            formatString = new StringBuilder("%.").append(_decimals).append("f").toString();
+            valueFormatter.setDecimals(_decimals);
         } else {
             decimals.set(DECIMALS);
         }
@@ -1130,7 +1271,7 @@ public class DataViewer extends Region {
             decimals = new IntegerPropertyBase(_decimals) {
                 @Override protected void invalidated() {
                     set(Helper.clamp(0, MAX_DECIMALS, get()));
-                    formatString = new StringBuilder("%.").append(_decimals).append("f").toString();
+                    valueFormatter.setDecimals(get());
                 }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "decimals"; }
@@ -1139,6 +1280,29 @@ public class DataViewer extends Region {
         return decimals;
     }
 
+    /**
+     * Overlays with at least the given number of visible points will be transformed
+     * to screen coordinates in parallel, 0 disables the parallel transform.
+     */
+    public int getParallelTransformThreshold() { return null == parallelTransformThreshold ? _parallelTransformThreshold : parallelTransformThreshold.get(); }
+    public void setParallelTransformThreshold(final int THRESHOLD) {
+        if (null == parallelTransformThreshold) {
+            _parallelTransformThreshold = Helper.clamp(0, Integer.MAX_VALUE, THRESHOLD);
+        } else {
+            parallelTransformThreshold.set(THRESHOLD);
+        }
+    }
+    public IntegerProperty parallelTransformThresholdProperty() {
+        if (null == parallelTransformThreshold) {
+            parallelTransformThreshold = new IntegerPropertyBase(_parallelTransformThreshold) {
+                @Override protected void invalidated() { set(Helper.clamp(0, Integer.MAX_VALUE, get())); }
+                @Override public Object getBean() { return DataViewer.this; }
+                @Override public String getName() { return "parallelTransformThreshold"; }
+            };
+        }
+        return parallelTransformThreshold;
+    }
+
     public Locale getLocale() { return null == locale ? _locale : locale.get(); }
     public void setLocale(final Locale LOCALE) {
         if (null == locale) {
@@ -1255,43 +1419,97 @@ public class DataViewer extends Region {
             overlays.add(overlay);
             overlay.setOnOverlayEvent(overlayListener);
         });
+        updateOverlayLayer();
         adjustToTimeBasedOverlays();
-        redraw();
+        scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
     }
     public void addOverlay(final Overlay OVERLAY) {
         if (overlays.contains(OVERLAY)) return;
         overlays.add(OVERLAY);
         OVERLAY.setOnOverlayEvent(overlayListener);
+        updateOverlayLayer();
         adjustToTimeBasedOverlays();
-        redraw();
+        scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
     }
     public void addOverlay(int index, final Overlay OVERLAY) {
         if (overlays.contains(OVERLAY)) return;
         overlays.add(index, OVERLAY);
         OVERLAY.setOnOverlayEvent(overlayListener);
+        updateOverlayLayer();
         adjustToTimeBasedOverlays();
-        redraw();
+        scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
     }
     public void setOverlay(int index, final Overlay OVERLAY) {
         if (overlays.contains(OVERLAY)) return;
         overlays.set(index, OVERLAY);
         OVERLAY.setOnOverlayEvent(overlayListener);
+        updateOverlayLayer();
         adjustToTimeBasedOverlays();
-        redraw();
+        scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
     }
     public void removeOverlay(final Overlay OVERLAY) {
         if (overlays.contains(OVERLAY)) {
             overlays.remove(OVERLAY);
             OVERLAY.removeOverlayEventListener(overlayListener);
-            redraw();
-        }
-    }
+            updateOverlayLayer();
+            scheduleRedraw(Layer.GRID, Layer.OVERLAYS);
+        }
+    }
+
+    /**
+     * Adds a new overlay and loads its x,y pairs from the given text file on a background thread.
+     * The overlay will show a coarse preview of large files first and the parsed points while loading.
+     * Removing the overlay or cancelling the returned future stops loading.
+     * Has to be called on the FX application thread, the future completes on it.
+     */
+    public CompletableFuture<Overlay> loadOverlayAsync(final Path FILE) { return loadOverlayAsync(FILE, new Overlay()); }
+    public CompletableFuture<Overlay> loadOverlayAsync(final Path FILE, final Overlay OVERLAY) {
+        CompletableFuture<Overlay> future = overlayLoader.load(OVERLAY, FILE);
+        addOverlay(OVERLAY);
+        return whenLoaded(future);
+    }
+    /**
+     * Like loadOverlayAsync(Path, Overlay) but without a preview, the reader will be closed when loading finished.
+     */
+    public CompletableFuture<Overlay> loadOverlayAsync(final Reader READER, final Overlay OVERLAY) {
+        CompletableFuture<Overlay> future = overlayLoader.load(OVERLAY, READER);
+        addOverlay(OVERLAY);
+        return whenLoaded(future);
+    }
+
+    public boolean isLoading(final Overlay OVERLAY) { return overlayLoader.isLoading(OVERLAY); }
+
+    /**
+     * Suspends redrawing until the matching call of endUpdate(), calls may be nested.
+     */
+    public void beginUpdate() { updateDepth++; }
+    /**
+     * Draws all layers and overlays that changed since the outermost beginUpdate() on the next pulse.
+     */
+    public void endUpdate() {
+        if (0 == updateDepth) { throw new IllegalStateException("endUpdate() without beginUpdate()"); }
+        if (--updateDepth > 0) { return; }
+        if (!dirtyLayers.isEmpty() || !dirtyOverlays.isEmpty() || !pendingAppends.isEmpty()) { startRedrawTimer(); }
+    }
+    /**
+     * Applies all changes of UPDATE (e.g. to several overlays) with a single redraw.
+     */
+    public void update(final Consumer<DataViewer> UPDATE) {
+        beginUpdate();
+        try {
+            UPDATE.accept(this);
+        } finally {
+            endUpdate();
+        }
+    }
+    public boolean isUpdating() { return updateDepth > 0; }
 
     public boolean isOverlaysVisible() { return null == overlaysVisible ? _overlaysVisible : overlaysVisible.get(); }
     public void setOverlaysVisible(final boolean VISIBLE) {
         if (null == overlaysVisible) {
             _overlaysVisible = VISIBLE;
-            canvasOverlays.setVisible(VISIBLE);
+            overlayLayer.setVisible(VISIBLE);
+            if (VISIBLE) { scheduleRedraw(Layer.OVERLAYS); }
         } else {
             overlaysVisible.set(VISIBLE);
         }
@@ -1299,7 +1517,10 @@ public class DataViewer extends Region {
     public BooleanProperty overlaysVisibleProperty() {
         if (null == overlaysVisible) {
             overlaysVisible = new BooleanPropertyBase(_overlaysVisible) {
-                @Override protected void invalidated() { canvasOverlays.setVisible(get()); }
+                @Override protected void invalidated() {
+                    overlayLayer.setVisible(get());
+                    if (get()) { scheduleRedraw(Layer.OVERLAYS); }
+                }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "overlaysVisible"; }
             };
@@ -1394,7 +1615,7 @@ public class DataViewer extends Region {
     public void setGridColor(final Color COLOR) {
         if (null == gridColor) {
             _gridColor = COLOR;
-            redraw();
+            scheduleRedraw(Layer.GRID);
         } else {
             gridColor.set(COLOR);
         }
@@ -1402,7 +1623,7 @@ public class DataViewer extends Region {
     public ObjectProperty<Color> gridColorProperty() {
         if (null == gridColor) {
             gridColor = new ObjectPropertyBase<Color>(_gridColor) {
-                @Override protected void invalidated() { redraw(); }
+                @Override protected void invalidated() { scheduleRedraw(Layer.GRID); }
                 @Override public Object getBean() { return DataViewer.this; }
                 @Override public String getName() { return "gridColor"; }
             };
@@ -1448,6 +1669,27 @@ public class DataViewer extends Region {
         yAxis.setTitleFontSize(SIZE);
     }
 
+    public AxisType getXAxisType() { return xAxis.getType(); }
+    public void setXAxisType(final AxisType TYPE) { xAxis.setType(TYPE); }
+    public ObjectProperty<AxisType> xAxisTypeProperty() { return xAxis.typeProperty(); }
+
+    public AxisType getYAxisType() { return yAxis.getType(); }
+    public void setYAxisType(final AxisType TYPE) { yAxis.setType(TYPE); }
+    public ObjectProperty<AxisType> yAxisTypeProperty() { return yAxis.typeProperty(); }
+
+    public boolean isXAxisPanCache() { return xAxis.isPanCache(); }
+    public void setXAxisPanCache(final boolean PAN_CACHE) { xAxis.setPanCache(PAN_CACHE); }
+    public BooleanProperty xAxisPanCacheProperty() { return xAxis.panCacheProperty(); }
+
+    public boolean isYAxisPanCache() { return yAxis.isPanCache(); }
+    public void setYAxisPanCache(final boolean PAN_CACHE) { yAxis.setPanCache(PAN_CACHE); }
+    public BooleanProperty yAxisPanCacheProperty() { return yAxis.panCacheProperty(); }
+
+    public void setAxisPanCache(final boolean PAN_CACHE) {
+        xAxis.setPanCache(PAN_CACHE);
+        yAxis.setPanCache(PAN_CACHE);
+    }
+
     public Position getXAxisPosition() { return null == xAxisPosition ? _xAxisPosition : xAxisPosition.get(); }
     public void setXAxisPosition(final Position POSITION) {
         if (null == xAxisPosition) {
@@ -1514,15 +1756,16 @@ public class DataViewer extends Region {
             zoomFactorX = 1.0 / zoomLevelX;
             zoomFactorY = 1.0 / zoomLevelY;
 
-            double       centerX = xAxis.getMinValue() + xAxis.getRange() * 0.5;
-            double       centerY = yAxis.getMinValue() + yAxis.getRange() * 0.5;
-            double       width   = zoomOut ? xAxis.getRange() + (xAxis.getMajorTickSpace() * zoomLevelX) : xAxis.getRange() - (xAxis.getMajorTickSpace() * zoomLevelX);
-            double       height  = zoomOut ? yAxis.getRange() + (yAxis.getMajorTickSpace() * zoomLevelY) : yAxis.getRange() - (yAxis.getMajorTickSpace() * zoomLevelY);
+            // Zooming happens in the scale of the axes, e.g. in decades for logarithmic axes
+            double       centerX = xAxis.getScaleMin() + xAxis.getScaleRange() * 0.5;
+            double       centerY = yAxis.getScaleMin() + yAxis.getScaleRange() * 0.5;
+            double       width   = zoomOut ? xAxis.getScaleRange() + (xAxis.getMajorTickSpace() * zoomLevelX) : xAxis.getScaleRange() - (xAxis.getMajorTickSpace() * zoomLevelX);
+            double       height  = zoomOut ? yAxis.getScaleRange() + (yAxis.getMajorTickSpace() * zoomLevelY) : yAxis.getScaleRange() - (yAxis.getMajorTickSpace() * zoomLevelY);
             CtxDimension dim     = new CtxDimension();
-            dim.setMinX(centerX - width * 0.5);
-            dim.setMaxX(centerX + height * 0.5);
-            dim.setMinY(centerY - height * 0.5);
-            dim.setMaxY(centerY + height * 0.5);
+            dim.setMinX(xAxis.fromScale(centerX - width * 0.5));
+            dim.setMaxX(xAxis.fromScale(centerX + width * 0.5));
+            dim.setMinY(yAxis.fromScale(centerY - height * 0.5));
+            dim.setMaxY(yAxis.fromScale(centerY + height * 0.5));
 
             setZoom(dim);
         }
@@ -1540,7 +1783,7 @@ public class DataViewer extends Region {
             zoomFactorY = oldZoomFactorY;
         };
         assureCorrectZoomFactors();
-        drawOverview();
+        scheduleRedraw(Layer.OVERVIEW);
 
         // Calculate the current view port
         gridViewPort.setMinX(DIM.getMinX());
@@ -1563,9 +1806,7 @@ public class DataViewer extends Region {
 
         recalc();
 
-        drawOverview();
-
-        drawOverlays();
+        scheduleRedraw(Layer.IMAGE, Layer.OVERVIEW, Layer.OVERLAYS);
 
         // Reset rectangle
         selectionRect.setStroke(Color.TRANSPARENT);
@@ -1621,11 +1862,15 @@ public class DataViewer extends Region {
             dragZoom(X, Y);
         }
         coordinatesText.relocate(TEXT_X, TEXT_Y);
-        if (isCrossHairVisible()) { drawCrossHair(X, Y); }
+        crossHairX = X;
+        crossHairY = Y;
+        if (isCrossHairVisible()) { scheduleRedraw(Layer.CROSSHAIR); }
     }
     private void mouseMoved(final double X, final double Y, final double TEXT_X, final double TEXT_Y) {
         coordinatesText.relocate(TEXT_X, TEXT_Y);
-        if (isCrossHairVisible()) { drawCrossHair(X, Y); }
+        crossHairX = X;
+        crossHairY = Y;
+        if (isCrossHairVisible()) { scheduleRedraw(Layer.CROSSHAIR); }
     }
     private void mouseExited(final double X, final double Y) {
         Scene scene = getScene();
@@ -1640,8 +1885,8 @@ public class DataViewer extends Region {
             panSelection = true;
             panOffsetX   = (X_IN_WINDOW) - selectionRect.getX();
             panOffsetY   = (Y_IN_WINDOW) - selectionRect.getY();
-            selectionTextXValue.setText(String.format(getLocale(), formatString, panOffsetX));
-            selectionTextYValue.setText(String.format(getLocale(), formatString, panOffsetY));
+            selectionTextXValue.setText(formatValue(panOffsetX));
+            selectionTextYValue.setText(formatValue(panOffsetY));
         } else {
             panSelection = false;
             selectionRect.setStroke(Helper.getColorWithOpacity(getSelectionColor(), 0.6));
@@ -1657,10 +1902,10 @@ public class DataViewer extends Region {
         Bounds   bounds      = selectionRect.getBoundsInParent();
         double[] startValues = getChartCoordinatesFromXY(bounds.getMinX() - LEFT - yAxisArea.getWidth(), bounds.getMinY() - TOP);
         double[] endValues   = getChartCoordinatesFromXY(bounds.getMaxX() - LEFT - yAxisArea.getWidth(), bounds.getMaxY() - TOP);
-        selectionTextXValue.setText(String.format(getLocale(), formatString, startValues[0]));
-        selectionTextYValue.setText(String.format(getLocale(), formatString, startValues[1]));
-        selectionTextWValue.setText(String.format(getLocale(), formatString, endValues[0] - startValues[0]));
-        selectionTextHValue.setText(String.format(getLocale(), formatString, startValues[1] - endValues[1]));
+        selectionTextXValue.setText(formatValue(startValues[0]));
+        selectionTextYValue.setText(formatValue(startValues[1]));
+        selectionTextWValue.setText(formatValue(endValues[0] - startValues[0]));
+        selectionTextHValue.setText(formatValue(startValues[1] - endValues[1]));
     }
     private void dragSelection(final double X, final double Y) {
         if (panSelection) {
@@ -1673,16 +1918,16 @@ public class DataViewer extends Region {
         Bounds   bounds      = selectionRect.getBoundsInParent();
         double[] startValues = getChartCoordinatesFromXY(bounds.getMinX() - LEFT - yAxisArea.getWidth(), bounds.getMinY() - TOP);
         double[] endValues   = getChartCoordinatesFromXY(bounds.getMaxX() - LEFT - yAxisArea.getWidth(), bounds.getMaxY() - TOP);
-        selectionTextXValue.setText(String.format(getLocale(), formatString, startValues[0]));
-        selectionTextYValue.setText(String.format(getLocale(), formatString, startValues[1]));
-        selectionTextWValue.setText(String.format(getLocale(), formatString, endValues[0] - startValues[0]));
-        selectionTextHValue.setText(String.format(getLocale(), formatString, startValues[1] - endValues[1]));
+        selectionTextXValue.setText(formatValue(startValues[0]));
+        selectionTextYValue.setText(formatValue(startValues[1]));
+        selectionTextWValue.setText(formatValue(endValues[0] - startValues[0]));
+        selectionTextHValue.setText(formatValue(startValues[1] - endValues[1]));
     }
     private void endSelection(final double X, final double Y) {
-        selectedArea.setMinX((((selectionRect.getX() - LEFT - yAxisArea.getWidth()) * scaleX) + xAxis.getMinValue()));
-        selectedArea.setMaxX((((selectionRect.getX() + selectionRect.getWidth() - LEFT - yAxisArea.getWidth()) * scaleX) + xAxis.getMinValue()));
-        selectedArea.setMinY((((chartArea.getHeight() - selectionRect.getY() - selectionRect.getHeight() + TOP) * scaleY) + yAxis.getMinValue()));
-        selectedArea.setMaxY((((chartArea.getHeight() - selectionRect.getY() + TOP) * scaleY) + yAxis.getMinValue()));
+        selectedArea.setMinX(xAxis.fromScale(((selectionRect.getX() - LEFT - yAxisArea.getWidth()) * scaleX) + xAxis.getScaleMin()));
+        selectedArea.setMaxX(xAxis.fromScale(((selectionRect.getX() + selectionRect.getWidth() - LEFT - yAxisArea.getWidth()) * scaleX) + xAxis.getScaleMin()));
+        selectedArea.setMinY(yAxis.fromScale(((chartArea.getHeight() - selectionRect.getY() - selectionRect.getHeight() + TOP) * scaleY) + yAxis.getScaleMin()));
+        selectedArea.setMaxY(yAxis.fromScale(((chartArea.getHeight() - selectionRect.getY() + TOP) * scaleY) + yAxis.getScaleMin()));
 
         if (Double.compare(selectedArea.getWidth(), 0) == 0 || Double.compare(selectedArea.getHeight(), 0) == 0) {
             selectedArea.setMinX(getXAxisMin());
@@ -1693,10 +1938,10 @@ public class DataViewer extends Region {
         Bounds   bounds      = selectionRect.getBoundsInParent();
         double[] startValues = getChartCoordinatesFromXY(bounds.getMinX() - LEFT - yAxisArea.getWidth(), bounds.getMinY() - TOP);
         double[] endValues   = getChartCoordinatesFromXY(bounds.getMaxX() - LEFT - yAxisArea.getWidth(), bounds.getMaxY() - TOP);
-        selectionTextXValue.setText(String.format(getLocale(), formatString, startValues[0]));
-        selectionTextYValue.setText(String.format(getLocale(), formatString, startValues[1]));
-        selectionTextWValue.setText(String.format(getLocale(), formatString, endValues[0] - startValues[0]));
-        selectionTextHValue.setText(String.format(getLocale(), formatString, startValues[1] - endValues[1]));
+        selectionTextXValue.setText(formatValue(startValues[0]));
+        selectionTextYValue.setText(formatValue(startValues[1]));
+        selectionTextWValue.setText(formatValue(endValues[0] - startValues[0]));
+        selectionTextHValue.setText(formatValue(startValues[1] - endValues[1]));
 
         // Fire event that contains the selected area
         fireDataEvent(new DataViewerEvent(DataViewer.this, Type.SELECT, selectedArea));
@@ -1751,13 +1996,13 @@ public class DataViewer extends Region {
             }
         }
         assureCorrectZoomFactors();
-        drawOverview();
+        scheduleRedraw(Layer.OVERVIEW);
 
         // Calculate the current view port
-        gridViewPort.setMinX((zoomStartX * scaleX) + xAxis.getMinValue());
-        gridViewPort.setMaxX((X * scaleX) + xAxis.getMinValue());
-        gridViewPort.setMinY(((chartArea.getHeight() - Y) * scaleY) + yAxis.getMinValue());
-        gridViewPort.setMaxY(((chartArea.getHeight() - zoomStartY) * scaleY) + yAxis.getMinValue());
+        gridViewPort.setMinX(xAxis.fromScale((zoomStartX * scaleX) + xAxis.getScaleMin()));
+        gridViewPort.setMaxX(xAxis.fromScale((X * scaleX) + xAxis.getScaleMin()));
+        gridViewPort.setMinY(yAxis.fromScale(((chartArea.getHeight() - Y) * scaleY) + yAxis.getScaleMin()));
+        gridViewPort.setMaxY(yAxis.fromScale(((chartArea.getHeight() - zoomStartY) * scaleY) + yAxis.getScaleMin()));
         assureCorrectGridViewPort();
 
         // Set image viewport according to selection rectangle
@@ -1774,9 +2019,7 @@ public class DataViewer extends Region {
 
         recalc();
 
-        drawOverview();
-
-        redraw();
+        scheduleRedraw(Layer.IMAGE, Layer.GRID, Layer.OVERLAYS, Layer.OVERVIEW);
 
         // Reset rectangle
         selectionRect.setStroke(Color.TRANSPARENT);
@@ -1803,18 +2046,31 @@ public class DataViewer extends Region {
 
     // ******************** Misc **********************************************
     private void shiftViewPort(final double DELTA_X, final double DELTA_Y) {
+        // The shift is in the scale of the axes, e.g. in decades for logarithmic axes
         double gridShiftX = -DELTA_X * scaleX;
         double gridShiftY = DELTA_Y * scaleY;
+        double minX       = xAxis.fromScale(xAxis.getScaleMin() + gridShiftX);
+        double maxX       = xAxis.fromScale(xAxis.getScaleMax() + gridShiftX);
+        double minY       = yAxis.fromScale(yAxis.getScaleMin() + gridShiftY);
+        double maxY       = yAxis.fromScale(yAxis.getScaleMax() + gridShiftY);
 
         // Don't pan outside initial axis limits
-        if (xAxis.getMinValue() + gridShiftX < initialMinX || xAxis.getMaxValue() + gridShiftX > initialMaxX ||
-            yAxis.getMinValue() + gridShiftY < initialMinY || yAxis.getMaxValue() + gridShiftY > initialMaxY) {
-            return;
-        }
+        if (minX < initialMinX || maxX > initialMaxX || minY < initialMinY || maxY > initialMaxY) { return; }
 
         // Calculate the current grid viewport
-        gridViewPort.shiftX(null == imageView.getImage() ? gridShiftX : -gridShiftX);
-        gridViewPort.shiftY(null == imageView.getImage() ? gridShiftY : -gridShiftY);
+        boolean hasImage = null != imageView.getImage() || null != getTileSource();
+        if (AxisType.LOGARITHMIC == xAxis.getType()) {
+            gridViewPort.setMinX(minX);
+            gridViewPort.setMaxX(maxX);
+        } else {
+            gridViewPort.shiftX(hasImage ? -gridShiftX : gridShiftX);
+        }
+        if (AxisType.LOGARITHMIC == yAxis.getType()) {
+            gridViewPort.setMinY(minY);
+            gridViewPort.setMaxY(maxY);
+        } else {
+            gridViewPort.shiftY(hasImage ? -gridShiftY : gridShiftY);
+        }
 
         // Shift axis values
         xAxis.shift(gridShiftX);
@@ -1827,25 +2083,27 @@ public class DataViewer extends Region {
         imageViewPort.setY(imageViewPortMinY);
         imageView.setViewport(new Rectangle2D(imageViewPortMinX, imageViewPortMinY, imageView.getViewport().getWidth(), imageView.getViewport().getHeight()));
 
-        drawOverview();
-
-        redraw();
+        scheduleRedraw(Layer.IMAGE, Layer.GRID, Layer.OVERLAYS, Layer.OVERVIEW);
     }
 
     private void adjustToData() {
         if (getAdjustGridToData()) {
-            double minX   = Double.MAX_VALUE;
-            double maxX   = -Double.MAX_VALUE;
-            double minY   = Double.MAX_VALUE;
-            double maxY   = -Double.MAX_VALUE;
+            double minX   = Double.POSITIVE_INFINITY;
+            double maxX   = Double.NEGATIVE_INFINITY;
+            double minY   = Double.POSITIVE_INFINITY;
+            double maxY   = Double.NEGATIVE_INFINITY;
             int    length = overlays.size();
+            // The point sources cache their bounds
             for (int i = 0 ; i < length ; i++) {
-                Overlay o = overlays.get(i);
-                minX = Math.min(minX, o.getPoints().stream().mapToDouble(Pair::getKey).min().getAsDouble());
-                maxX = Math.max(maxX, o.getPoints().stream().mapToDouble(Pair::getKey).max().getAsDouble());
-                minY = Math.min(minY, o.getPoints().stream().mapToDouble(Pair::getValue).min().getAsDouble());
-                maxY = Math.max(maxY, o.getPoints().stream().mapToDouble(Pair::getValue).max().getAsDouble());
+                PointSource source = overlays.get(i).getPointSource();
+                if (0 == source.size()) { continue; }
+                minX = Math.min(minX, source.getMinX());
+                maxX = Math.max(maxX, source.getMaxX());
+                minY = Math.min(minY, source.getMinY());
+                maxY = Math.max(maxY, source.getMaxY());
             }
+            // No points (or only NaN values)
+            if (minX > maxX || minY > maxY) { return; }
             setXAxisMin(minX);
             setXAxisMax(maxX);
             setYAxisMin(minY);
@@ -1853,9 +2111,7 @@ public class DataViewer extends Region {
 
             recalc();
 
-            drawOverview();
-
-            redraw();
+            scheduleRedraw(Layer.GRID, Layer.OVERLAYS, Layer.OVERVIEW);
         }
     }
 
@@ -1889,8 +2145,8 @@ public class DataViewer extends Region {
     }
 
     private void recalc() {
-        scaleX            = xAxis.getRange() / chartArea.getWidth();
-        scaleY            = yAxis.getRange() / chartArea.getHeight();
+        scaleX            = xAxis.getScaleRange() / chartArea.getWidth();
+        scaleY            = yAxis.getScaleRange() / chartArea.getHeight();
         initialRangeX     = initialMaxX - initialMinX;
         initialRangeY     = initialMaxY - initialMinY;
         gridToImageScaleX = initialImageWidth / initialRangeX;
@@ -1912,19 +2168,104 @@ public class DataViewer extends Region {
     }
 
     private double[] getChartCoordinatesFromXY(final double X, final double Y) {
-        double valueX = (X * scaleX) + xAxis.getMinValue();
-        double valueY = ((chartArea.getHeight() - Y) * scaleY) + yAxis.getMinValue();
+        double valueX = xAxis.fromScale((X * scaleX) + xAxis.getScaleMin());
+        double valueY = yAxis.fromScale(((chartArea.getHeight() - Y) * scaleY) + yAxis.getScaleMin());
         return new double[] { valueX, valueY };
     }
 
 
     // ******************** Drawing *******************************************
     public void redraw() {
+        dirtyLayers.remove(Layer.GRID);
+        dirtyLayers.remove(Layer.OVERLAYS);
+        dirtyOverlays.clear();
+        pendingAppends.clear();
         if (isOverlaysVisible()) { drawOverlays(); }
         if (isGridVisible()) { drawGrid(); }
         if (isCenterCrossVisible()) { drawCenterCross(); }
     }
 
+    // Marks the given layers as dirty, they will be drawn once on the next pulse
+    private void scheduleRedraw(final Layer... LAYERS) {
+        Collections.addAll(dirtyLayers, LAYERS);
+        startRedrawTimer();
+    }
+
+    // Marks a single overlay as dirty, only it's canvas will be drawn on the next pulse
+    private void scheduleRedraw(final Overlay OVERLAY) {
+        dirtyOverlays.add(OVERLAY);
+        startRedrawTimer();
+    }
+
+    // Collects the appended points of a streaming overlay until the next pulse
+    private void scheduleAppend(final Overlay OVERLAY, final int FROM_INDEX, final int NO_OF_EVICTED) {
+        int[] pending = pendingAppends.get(OVERLAY);
+        if (null == pending) {
+            pendingAppends.put(OVERLAY, new int[] { FROM_INDEX, NO_OF_EVICTED });
+        } else {
+            // Evicted points shift the index of the points that are still pending
+            pending[0] = Math.max(0, Math.min(pending[0] - NO_OF_EVICTED, FROM_INDEX));
+            pending[1] += NO_OF_EVICTED;
+        }
+        startRedrawTimer();
+    }
+
+    // Draws the dirty layers on the next pulse unless an update is in progress
+    private void startRedrawTimer() {
+        if (redrawScheduled || updateDepth > 0) { return; }
+        redrawScheduled = true;
+        redrawTimer.start();
+    }
+
+    private void drawDirtyLayers() {
+        EnumSet<Layer> layers = EnumSet.copyOf(dirtyLayers);
+        dirtyLayers.clear();
+        if (layers.contains(Layer.IMAGE)) { drawTiles(); }
+        if (layers.contains(Layer.AXIS)) { drawAxis(); }
+        if (layers.contains(Layer.OVERLAYS)) {
+            dirtyOverlays.clear();
+            pendingAppends.clear();
+            if (isOverlaysVisible()) { drawOverlays(); }
+        } else if (isOverlaysVisible()) {
+            for (Map.Entry<Overlay, int[]> entry : pendingAppends.entrySet()) {
+                Overlay overlay = entry.getKey();
+                if (dirtyOverlays.contains(overlay)) { continue; }
+                if (!drawAppendedPoints(overlay, entry.getValue()[0], entry.getValue()[1])) { dirtyOverlays.add(overlay); }
+            }
+            pendingAppends.clear();
+            dirtyOverlays.forEach(overlay -> drawOverlay(overlay));
+            dirtyOverlays.clear();
+        }
+        if (layers.contains(Layer.GRID)) {
+            if (isGridVisible()) { drawGrid(); }
+            if (isCenterCrossVisible()) { drawCenterCross(); }
+        }
+        if (layers.contains(Layer.OVERVIEW)) { drawOverview(); }
+        if (layers.contains(Layer.CROSSHAIR) && isCrossHairVisible()) { drawCrossHair(crossHairX, crossHairY); }
+    }
+
+    private void drawTiles() {
+        TileSource source = tileRenderer.getSource();
+        if (null == source) { return; }
+        // Without zoom the whole image is visible
+        if (imageViewPort.getWidth() <= 0 || imageViewPort.getHeight() <= 0) {
+            tileRenderer.draw(new CtxBounds(0, 0, source.getWidth(), source.getHeight()));
+        } else {
+            tileRenderer.draw(imageViewPort);
+        }
+    }
+
+    private void updateTileSource(final TileSource SOURCE) {
+        if (null != SOURCE) {
+            if (initialImageWidth < 0)  { initialImageWidth = SOURCE.getWidth(); }
+            if (initialImageHeight < 0) { initialImageHeight = SOURCE.getHeight(); }
+        }
+        tileRenderer.setSource(SOURCE);
+        canvasTiles.getGraphicsContext2D().clearRect(0, 0, canvasTiles.getWidth(), canvasTiles.getHeight());
+        recalc();
+        scheduleRedraw(Layer.IMAGE);
+    }
+
     private void drawBackground() {
         setBackground(new Background(new BackgroundFill(getBackgroundColor(), CornerRadii.EMPTY, Insets.EMPTY)));
     }
@@ -1950,217 +2291,577 @@ public class DataViewer extends Region {
         ctxGrid.setLineDashes(4, 4);
         ctxGrid.setLineWidth(1);
 
-        double rangeX     = xAxis.getRange();
-        double rangeY     = yAxis.getRange();
-        double tickSpaceX = xAxis.getMinorTickSpace();
-        double tickSpaceY = yAxis.getMinorTickSpace();
+        double rangeX     = xAxis.getScaleRange();
+        double rangeY     = yAxis.getScaleRange();
         double stepX      = chartArea.getWidth() / rangeX;
         double stepY      = chartArea.getHeight() / rangeY;
         double minX       = Position.LEFT == _yAxisPosition ? chartArea.getMinX() - LEFT - yAxisArea.getWidth() : chartArea.getMinX() - yAxisArea.getWidth();
         double maxX       = chartArea.getMaxX();
         double minY       = Position.BOTTOM == _xAxisPosition ? chartArea.getMinY() - TOP : chartArea.getMinY() - xAxisArea.getHeight() - TOP;
         double maxY       = chartArea.getMaxY();
+        double axisMinX   = xAxis.getScaleMin();
+        double axisMaxY   = yAxis.getScaleMax();
 
-        for (double x = 0 ; x < rangeX ; x += tickSpaceX) {
-            ctxGrid.strokeLine(x * stepX, minY, x * stepX, maxY);
+        // Grid lines are drawn at the ticks of the axes
+        for (int i = 0, n = xAxis.getNoOfTicks() ; i < n ; i++) {
+            double x = (xAxis.toScale(xAxis.getTickValue(i)) - axisMinX) * stepX;
+            ctxGrid.strokeLine(x, minY, x, maxY);
         }
-        for (double y = 0 ; y < rangeY ; y += tickSpaceY) {
-            ctxGrid.strokeLine(minX, minY + y * stepY, maxX, minY + y * stepY);
+        for (int i = 0, n = yAxis.getNoOfTicks() ; i < n ; i++) {
+            double y = minY + (axisMaxY - yAxis.toScale(yAxis.getTickValue(i))) * stepY;
+            ctxGrid.strokeLine(minX, y, maxX, y);
         }
+    }
 
+    private String formatValue(final double VALUE) {
+        valueFormatter.setLocale(getLocale());
+        return valueFormatter.format(VALUE);
     }
 
-    private void drawOverlays() {
-        double chartWidth  = chartArea.getWidth();
-        double chartHeight = chartArea.getHeight();
-        double symbolSize  = chartHeight * 0.019;
-        double minX        = xAxis.getMinValue();
-        double maxX        = xAxis.getMaxValue();
-        double minY        = yAxis.getMinValue();
-        double maxY        = yAxis.getMaxValue();
-        double stepX       = chartWidth / xAxis.getRange();
-        double stepY       = chartHeight / yAxis.getRange();
+    private CompletableFuture<Overlay> whenLoaded(final CompletableFuture<Overlay> FUTURE) {
+        FUTURE.thenAccept(overlay -> { if (getAdjustGridToData()) { adjustToData(); }});
+        return FUTURE;
+    }
 
-        ctxOverlays.clearRect(0, 0, chartWidth, chartHeight);
-        ctxOverlays.setLineCap(StrokeLineCap.BUTT);
-        overlays.forEach(overlay -> {
-            if (overlay.isVisible()) {
-                ctxOverlays.setFill(overlay.getFill());
-
-                ctxOverlays.setStroke(overlay.getStroke());
-                ctxOverlays.setLineWidth(overlay.getLineWidth());
-                switch(overlay.getLineStyle()) {
-                    case EMPTY      : ctxOverlays.setStroke(Color.TRANSPARENT); break;
-                    case DASHED     : ctxOverlays.setLineDashes(overlay.getLineWidth() * 3); break;
-                    case DOTTED     : ctxOverlays.setLineDashes(overlay.getLineWidth()); break;
-                    case DASH_DOTTED: ctxOverlays.setLineDashes(overlay.getLineWidth() * 3, overlay.getLineWidth() * 3, overlay.getLineWidth(), overlay.getLineWidth() * 3); break;
-                    case SOLID      :
-                    default         : ctxOverlays.setLineDashes(null);
-                }
+    // Keeps one canvas per overlay in the overlay layer in the order of the overlays
+    private void updateOverlayLayer() {
+        overlayCanvases.keySet().stream().filter(overlay -> !overlays.contains(overlay)).forEach(overlay -> {
+            backgroundRenderer.cancel(overlay);
+            densityRenderer.cancel(overlay);
+            overlayLoader.cancel(overlay);
+        });
+        overlayCanvases.keySet().retainAll(overlays);
+        dirtyOverlays.retainAll(overlays);
+        staleOverlays.retainAll(overlays);
+        pendingAppends.keySet().retainAll(overlays);
+        List<Node> canvases = new ArrayList<>(overlays.size());
+        for (Overlay overlay : overlays) {
+            Canvas canvas = overlayCanvases.get(overlay);
+            if (null == canvas) {
+                canvas = new Canvas(chartArea.getWidth(), chartArea.getHeight());
+                canvas.setVisible(overlay.isVisible());
+                overlayCanvases.put(overlay, canvas);
+            }
+            canvases.add(canvas);
+        }
+        overlayLayer.getChildren().setAll(canvases);
+    }
 
-                List<Pair<Double, Double>> points     = overlay.getPoints();
-                int                        noOfPoints = points.size();
-                if (noOfPoints > 0) {
-                    Symbol               symbol   = overlay.getSymbol();
-                    boolean              doFill   = overlay.isDoFill();
-                    boolean              doStroke = overlay.isDoStroke();
-                    double               x        = (points.get(0).getKey() - minX) * stepX;
-                    double               y        = chartHeight - (points.get(0).getValue() - minY) * stepY;
-                    Pair<Double, Double> point;
-
-                    ctxOverlays.beginPath();
-                    ctxOverlays.moveTo(x, y);
-                    for (int i = 1; i < noOfPoints; i++) {
-                        point = points.get(i);
-                        x = (point.getKey() - minX) * stepX;
-                        y = chartHeight - (point.getValue() - minY) * stepY;
-                        if (doFill || doStroke) {
-                            ctxOverlays.lineTo(x, y);
-                        }
-                    }
-                    if (doFill) {
-                        ctxOverlays.closePath();
-                        ctxOverlays.fill();
-                    }
-                    if (doStroke) { ctxOverlays.stroke(); }
-
-                    // Draw symbols
-                    if (overlay.isSymbolsVisible()) {
-                        ctxOverlays.setLineWidth(1);
-                        for (int i = 0; i < noOfPoints; i++) {
-                            point = points.get(i);
-                            x = (point.getKey() - minX) * stepX;
-                            y = chartHeight - (point.getValue() - minY) * stepY;
-
-                            ctxOverlays.setStroke(overlay.getSymbolColor());
-                            ctxOverlays.setFill(overlay.getSymbolColor());
-                            drawSymbol(x, y, symbol, symbolSize);
-                        }
-                    }
-                }
+    // Only shows or hides the canvas of the overlay, it will only be drawn if it changed while it was hidden
+    private void updateOverlayVisibility(final Overlay OVERLAY) {
+        Canvas canvas = overlayCanvases.get(OVERLAY);
+        if (null == canvas) { return; }
+        canvas.setVisible(OVERLAY.isVisible());
+        if (OVERLAY.isVisible() && staleOverlays.contains(OVERLAY)) { scheduleRedraw(OVERLAY); }
+    }
+
+    private void drawOverlays() { overlays.forEach(overlay -> drawOverlay(overlay)); }
 
-                if (null != overlay.getShape()) {
-                    Shape shape = overlay.getShape();
-                    ShapeConverter.drawShapeToCtx(shape, chartWidth, chartHeight, minX, minY, stepX, stepY, ctxOverlays, overlay.isDoFill() ? overlay.getFill() : Color.TRANSPARENT, overlay.isDoStroke() ? overlay.getStroke() : Color.TRANSPARENT);
+    private void drawOverlay(final Overlay OVERLAY) {
+        Canvas canvas = overlayCanvases.get(OVERLAY);
+        if (null == canvas) { return; }
+
+        // Hidden overlays will be drawn when they become visible again
+        if (!OVERLAY.isVisible()) {
+            backgroundRenderer.cancel(OVERLAY);
+            densityRenderer.cancel(OVERLAY);
+            staleOverlays.add(OVERLAY);
+            canvas.setVisible(false);
+            return;
+        }
+        staleOverlays.remove(OVERLAY);
+        canvas.setVisible(true);
+
+        GraphicsContext ctx         = canvas.getGraphicsContext2D();
+        double          chartWidth  = chartArea.getWidth();
+        double          chartHeight = chartArea.getHeight();
+        double          symbolSize  = symbolCache.getSize();
+        double          minX        = xAxis.getMinValue();
+        double          maxX        = xAxis.getMaxValue();
+        double          minY        = yAxis.getMinValue();
+        double          maxY        = yAxis.getMaxValue();
+        // Points are mapped linearly in the scale of the axes, on logarithmic axes the visible points are converted to it first
+        boolean         logarithmic = isLogarithmic();
+        double          scaleMinX   = xAxis.getScaleMin();
+        double          scaleMinY   = yAxis.getScaleMin();
+        double          stepX       = chartWidth / xAxis.getScaleRange();
+        double          stepY       = chartHeight / yAxis.getScaleRange();
+
+        // Points will be binned into a density map in the background, shape and image are drawn on top once it's done
+        if (RenderMode.DENSITY == OVERLAY.getRenderMode() && !logarithmic) {
+            backgroundRenderer.cancel(OVERLAY);
+            PointSource source = OVERLAY.getPointSource();
+            int         from   = 0;
+            int         to     = source.size();
+            if (OVERLAY.isXMonotonic() && to > 0) {
+                from = Math.max(0, Helper.lowerBound(source, minX) - 1);
+                to   = Math.min(source.size(), Helper.upperBound(source, maxX) + 1);
+            }
+            densityRenderer.render(OVERLAY, canvas, from, to, minX, minY, stepX, stepY,
+                                   () -> drawShapeAndImage(ctx, OVERLAY, chartWidth, chartHeight, minX, minY, stepX, stepY),
+                                   () -> scheduleRedraw(OVERLAY));
+            return;
+        }
+        densityRenderer.cancel(OVERLAY);
+
+        PointBuffer points;
+        if (OVERLAY.hasPointSource()) {
+            PointSource source = OVERLAY.getPointSource();
+            int         from   = 0;
+            int         to     = source.size();
+            if (OVERLAY.isXMonotonic() && to > 0) {
+                from = Math.max(0, Helper.lowerBound(source, minX) - 1);
+                to   = Math.min(source.size(), Helper.upperBound(source, maxX) + 1);
+            }
+            // Large slices are drawn from the source in chunks instead of copying them to the heap
+            if (to - from > SOURCE_CHUNK_SIZE) {
+                backgroundRenderer.cancel(OVERLAY);
+                drawPointSource(ctx, OVERLAY, from, to, chartWidth, chartHeight, scaleMinX, scaleMinY, stepX, stepY);
+                drawShapeAndImage(ctx, OVERLAY, chartWidth, chartHeight, scaleMinX, scaleMinY, stepX, stepY);
+                return;
+            }
+            points = readPointSource(source, from, to);
+        } else {
+            points = OVERLAY.getPointBuffer();
+        }
+        int noOfPoints = points.size();
+
+        // Points and symbols will be rasterized in the background, shape and image are drawn on top once it's done
+        if (RenderMode.BACKGROUND == OVERLAY.getRenderMode() && BackgroundRenderer.isSupported(OVERLAY) && !logarithmic) {
+            int from = 0;
+            int to   = noOfPoints;
+            if (OVERLAY.isXMonotonic() && noOfPoints > 0) {
+                double[] xs = points.getXs();
+                from = Math.max(0, Helper.lowerBound(xs, noOfPoints, minX) - 1);
+                to   = Math.min(noOfPoints, Helper.upperBound(xs, noOfPoints, maxX) + 1);
+            }
+            backgroundRenderer.render(OVERLAY, canvas, points, from, to, minX, minY, stepX, stepY, symbolSize,
+                                      () -> drawShapeAndImage(ctx, OVERLAY, chartWidth, chartHeight, minX, minY, stepX, stepY));
+            return;
+        }
+        backgroundRenderer.cancel(OVERLAY);
+
+        ctx.clearRect(0, 0, chartWidth, chartHeight);
+        ctx.setLineCap(StrokeLineCap.BUTT);
+        setLineStyle(ctx, OVERLAY);
+
+        if (noOfPoints > 0) {
+            Symbol   symbol   = OVERLAY.getSymbol();
+            boolean  doFill   = OVERLAY.isDoFill();
+            boolean  doStroke = OVERLAY.isDoStroke();
+            double[] xs       = points.getXs();
+            double[] ys       = points.getYs();
+
+            // Only the visible slice plus one neighbour on each side is needed for x monotonic points
+            int from = 0;
+            int to   = noOfPoints;
+            if (OVERLAY.isXMonotonic()) {
+                from = Math.max(0, Helper.lowerBound(xs, noOfPoints, minX) - 1);
+                to   = Math.min(noOfPoints, Helper.upperBound(xs, noOfPoints, maxX) + 1);
+            }
+            boolean culled = from > 0 || to < noOfPoints;
+            int     last   = noOfPoints - 1;
+
+            // The converted slice is framed by the first and the last point
+            if (logarithmic) {
+                points     = scalePoints(points, from, to);
+                xs         = points.getXs();
+                ys         = points.getYs();
+                from       = 1;
+                to         = points.size() - 1;
+                last       = points.size() - 1;
+                noOfPoints = points.size();
+            }
+
+            if (doFill || doStroke) {
+                PointBuffer linePoints = decimate(OVERLAY, points, from, to, scaleMinX, stepX, chartWidth);
+                int         lineFrom   = linePoints == points ? from : 0;
+                int         lineTo     = linePoints == points ? to : linePoints.size();
+                boolean     closeEnds  = doFill && culled;
+                int         noOfLine   = lineTo - lineFrom + (closeEnds ? 2 : 0);
+                int         offset     = 0;
+                ensureScreenBuffers(noOfLine);
+                // A culled filled path still starts and ends with the first and last point to keep the closing edge
+                if (closeEnds) {
+                    ScreenTransform.transform(xs, ys, 0, 1, scaleMinX, scaleMinY, stepX, stepY, chartHeight, screenXs, screenYs, offset, 0);
+                    offset++;
+                }
+                ScreenTransform.transform(linePoints.getXs(), linePoints.getYs(), lineFrom, lineTo, scaleMinX, scaleMinY, stepX, stepY, chartHeight, screenXs, screenYs, offset, getParallelTransformThreshold());
+                if (closeEnds) {
+                    ScreenTransform.transform(xs, ys, last, last + 1, scaleMinX, scaleMinY, stepX, stepY, chartHeight, screenXs, screenYs, noOfLine - 1, 0);
                 }
+                if (doFill) {
+                    ctx.fillPolygon(screenXs, screenYs, noOfLine);
+                    if (doStroke) { ctx.strokePolygon(screenXs, screenYs, noOfLine); }
+                } else {
+                    strokePolyline(ctx, noOfLine, LineStyle.SOLID == OVERLAY.getLineStyle());
+                }
+            }
+
+            // Draw symbols by stamping their pre rendered images
+            if (OVERLAY.isSymbolsVisible() && Symbol.NONE != symbol) {
+                ensureScreenBuffers(to - from);
+                ScreenTransform.transform(xs, ys, from, to, scaleMinX, scaleMinY, stepX, stepY, chartHeight, screenXs, screenYs, 0, getParallelTransformThreshold());
+                drawSymbols(ctx, OVERLAY, to - from, chartWidth, chartHeight);
+            }
+        }
 
-                if (null != overlay.getImage()) {
-                    Image  image  = overlay.getImage();
-                    double imageX = (overlay.getImagePos().getX() - minX) * stepX;
-                    double imageY = chartHeight - (overlay.getImagePos().getY() - minY) * stepY;
-                    double imageW = overlay.getImageSize().getWidth();
-                    double imageH = overlay.getImageSize().getHeight();
-                    switch(overlay.getImageAnchor()) {
-                        case TOP_LEFT:
-                            break;
-                        case TOP_RIGHT:
-                            imageX -= imageW;
-                            break;
-                        case BOTTOM_LEFT:
-                            imageY -= imageH;
-                            break;
-                        case BOTTOM_RIGHT:
-                            imageX -= imageW;
-                            imageY -= imageH;
-                            break;
-                        case CENTER:
-                        default    :
-                            imageX -= imageW * 0.5;
-                            imageY -= imageH * 0.5;
-                            break;
+        drawShapeAndImage(ctx, OVERLAY, chartWidth, chartHeight, scaleMinX, scaleMinY, stepX, stepY);
+    }
+
+    private boolean isLogarithmic() { return AxisType.LOGARITHMIC == xAxis.getType() || AxisType.LOGARITHMIC == yAxis.getType(); }
+
+    // Copies the first point, the points [FROM, TO) and the last point of POINTS converted to the scale of the axes
+    private PointBuffer scalePoints(final PointBuffer POINTS, final int FROM, final int TO) {
+        int last = POINTS.size() - 1;
+        scaledPoints.clear();
+        scaledPoints.add(POINTS.getX(0), POINTS.getY(0));
+        scaledPoints.addAll(POINTS, FROM, TO);
+        scaledPoints.add(POINTS.getX(last), POINTS.getY(last));
+
+        toScale(scaledPoints);
+        return scaledPoints;
+    }
+
+    // Converts the points of POINTS in place to the scale of logarithmic axes
+    private void toScale(final PointBuffer POINTS) {
+        double[] xs = POINTS.getXs();
+        double[] ys = POINTS.getYs();
+        if (AxisType.LOGARITHMIC == xAxis.getType()) {
+            for (int i = 0, n = POINTS.size() ; i < n ; i++) { xs[i] = xAxis.toScale(xs[i]); }
+        }
+        if (AxisType.LOGARITHMIC == yAxis.getType()) {
+            for (int i = 0, n = POINTS.size() ; i < n ; i++) { ys[i] = yAxis.toScale(ys[i]); }
+        }
+    }
+
+    /**
+     * Draws the points [FROM, TO) of an overlay with a point source that are too many to be
+     * copied to the heap. The line of x sorted points is decimated directly from the source,
+     * everything else is read, transformed and drawn in chunks of SOURCE_CHUNK_SIZE points.
+     * Filled paths are framed by the first and the last point of the source like culled slices.
+     */
+    private void drawPointSource(final GraphicsContext CTX, final Overlay OVERLAY, final int FROM, final int TO, final double WIDTH, final double HEIGHT,
+                                 final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y) {
+        PointSource source   = OVERLAY.getPointSource();
+        int         last     = source.size() - 1;
+        boolean     doFill   = OVERLAY.isDoFill();
+        boolean     doStroke = OVERLAY.isDoStroke();
+        boolean     culled   = FROM > 0 || TO <= last;
+        int         columns  = (int) Math.ceil(WIDTH);
+        CTX.clearRect(0, 0, WIDTH, HEIGHT);
+        CTX.setLineCap(StrokeLineCap.BUTT);
+        setLineStyle(CTX, OVERLAY);
+
+        if ((doFill || doStroke) && OVERLAY.isXMonotonic() && Decimation.NONE != OVERLAY.getDecimation() && !isLogarithmic()) {
+            if (Decimation.M4 == OVERLAY.getDecimation()) {
+                Decimator.m4(source, FROM, TO, MIN_X, STEP_X, columns, decimatedPoints);
+            } else {
+                Decimator.lttb(source, FROM, TO, columns * 2, decimatedPoints);
+            }
+            boolean closeEnds = doFill && culled;
+            int     noOfLine  = decimatedPoints.size() + (closeEnds ? 2 : 0);
+            ensureScreenBuffers(noOfLine);
+            ScreenTransform.transform(decimatedPoints.getXs(), decimatedPoints.getYs(), 0, decimatedPoints.size(), MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT, screenXs, screenYs, closeEnds ? 1 : 0, getParallelTransformThreshold());
+            if (closeEnds) {
+                screenXs[0]            = toScreenX(source.getX(0), MIN_X, STEP_X);
+                screenYs[0]            = toScreenY(source.getY(0), MIN_Y, STEP_Y, HEIGHT);
+                screenXs[noOfLine - 1] = toScreenX(source.getX(last), MIN_X, STEP_X);
+                screenYs[noOfLine - 1] = toScreenY(source.getY(last), MIN_Y, STEP_Y, HEIGHT);
+            }
+            if (doFill) {
+                CTX.fillPolygon(screenXs, screenYs, noOfLine);
+                if (doStroke) { CTX.strokePolygon(screenXs, screenYs, noOfLine); }
+            } else {
+                strokePolyline(CTX, noOfLine, LineStyle.SOLID == OVERLAY.getLineStyle());
+            }
+        } else if (doFill) {
+            // A polygon can't be split, so the chunks are collected in the path of the context
+            CTX.beginPath();
+            if (culled) { CTX.moveTo(toScreenX(source.getX(0), MIN_X, STEP_X), toScreenY(source.getY(0), MIN_Y, STEP_Y, HEIGHT)); }
+            boolean first = !culled;
+            for (int start = FROM ; start < TO ; start += SOURCE_CHUNK_SIZE) {
+                int size = transformSource(source, start, Math.min(TO, start + SOURCE_CHUNK_SIZE), MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT);
+                for (int i = 0 ; i < size ; i++) {
+                    if (first) {
+                        CTX.moveTo(screenXs[i], screenYs[i]);
+                        first = false;
+                    } else {
+                        CTX.lineTo(screenXs[i], screenYs[i]);
                     }
-                    ctxOverlays.drawImage(image, imageX ,imageY, imageW, imageH);
                 }
             }
-        });
+            if (culled) { CTX.lineTo(toScreenX(source.getX(last), MIN_X, STEP_X), toScreenY(source.getY(last), MIN_Y, STEP_Y, HEIGHT)); }
+            CTX.closePath();
+            CTX.fill();
+            if (doStroke) { CTX.stroke(); }
+        } else if (doStroke) {
+            // The polylines of consecutive chunks share their end points
+            for (int start = FROM ; start < TO - 1 ; start += SOURCE_CHUNK_SIZE - 1) {
+                int size = transformSource(source, start, Math.min(TO, start + SOURCE_CHUNK_SIZE), MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT);
+                strokePolyline(CTX, size, LineStyle.SOLID == OVERLAY.getLineStyle());
+            }
+        }
+
+        if (OVERLAY.isSymbolsVisible() && Symbol.NONE != OVERLAY.getSymbol()) {
+            SymbolThinning thinning = OVERLAY.getSymbolThinning();
+            if (SymbolThinning.NONE != thinning) { occupancyGrid.reset(WIDTH, HEIGHT, symbolCache.getSize()); }
+            for (int start = FROM ; start < TO ; start += SOURCE_CHUNK_SIZE) {
+                int size = transformSource(source, start, Math.min(TO, start + SOURCE_CHUNK_SIZE), MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT);
+                stampSymbols(CTX, OVERLAY, size, start - FROM);
+            }
+            // The screen buffers only hold the last chunk, so the first symbol of a cluster is read from the source again
+            if (SymbolThinning.CLUSTER == thinning) {
+                drawClusters(CTX, OVERLAY, INDEX -> toScreenX(source.getX(FROM + INDEX), MIN_X, STEP_X),
+                                           INDEX -> toScreenY(source.getY(FROM + INDEX), MIN_Y, STEP_Y, HEIGHT));
+            }
+        }
     }
 
-    private void drawSymbol(final double X, final double Y, final Symbol SYMBOL, final double SYMBOL_SIZE) {
-        double halfSymbolSize = SYMBOL_SIZE * 0.5;
-        switch(SYMBOL) {
-            case BOX:
-                ctxOverlays.strokeRect(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
-                break;
-            case BOX_FILLED:
-                ctxOverlays.fillRect(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
-                break;
-            case CIRCLE:
-                ctxOverlays.strokeOval(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
-                break;
-            case CIRCLE_FILLED:
-                ctxOverlays.fillOval(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
-                break;
-            case CROSS:
-                ctxOverlays.strokeLine(X - halfSymbolSize, Y - halfSymbolSize, X + halfSymbolSize, Y + halfSymbolSize);
-                ctxOverlays.strokeLine(X - halfSymbolSize, Y + halfSymbolSize, X + halfSymbolSize, Y - halfSymbolSize);
-                break;
-            case PLUS:
-                ctxOverlays.strokeLine(X - halfSymbolSize, Y, X + halfSymbolSize, Y);
-                ctxOverlays.strokeLine(X, Y - halfSymbolSize, X, Y + halfSymbolSize);
-                break;
-            case STAR:
-                drawStar(ctxOverlays, X, Y,5, halfSymbolSize,halfSymbolSize * 0.4);
-                ctxOverlays.stroke();
-                break;
-            case STAR_FILLED:
-                drawStar(ctxOverlays, X, Y,5, SYMBOL_SIZE * 0.75,SYMBOL_SIZE * 0.3);
-                ctxOverlays.fill();
-                break;
-            case TRIANGLE_UP:
-                ctxOverlays.strokeLine(X, Y - halfSymbolSize, X + halfSymbolSize, Y + halfSymbolSize);
-                ctxOverlays.strokeLine(X + halfSymbolSize, Y + halfSymbolSize, X - halfSymbolSize, Y + halfSymbolSize);
-                ctxOverlays.strokeLine(X - halfSymbolSize, Y + halfSymbolSize, X, Y - halfSymbolSize);
-                break;
-            case TRIANGLE_UP_FILLED:
-                ctxOverlays.beginPath();
-                ctxOverlays.moveTo(X, Y - halfSymbolSize);
-                ctxOverlays.lineTo(X + halfSymbolSize, Y + halfSymbolSize);
-                ctxOverlays.lineTo(X - halfSymbolSize, Y + halfSymbolSize);
-                ctxOverlays.lineTo(X, Y - halfSymbolSize);
-                ctxOverlays.closePath();
-                ctxOverlays.fill();
-                break;
-            case TRIANGLE_DOWN:
-                ctxOverlays.strokeLine(X, Y + halfSymbolSize, X - halfSymbolSize, Y - halfSymbolSize);
-                ctxOverlays.strokeLine(X - halfSymbolSize, Y - halfSymbolSize, X + halfSymbolSize, Y - halfSymbolSize);
-                ctxOverlays.strokeLine(X + halfSymbolSize, Y - halfSymbolSize, X, Y + halfSymbolSize);
+    // Reads the points [FROM, TO) of SOURCE into sourcePoints and transforms them into the screen buffers, returns their number
+    private int transformSource(final PointSource SOURCE, final int FROM, final int TO, final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y, final double HEIGHT) {
+        sourcePoints.clear();
+        sourcePoints.addAll(SOURCE, FROM, TO);
+        toScale(sourcePoints);
+        int size = sourcePoints.size();
+        ensureScreenBuffers(size);
+        ScreenTransform.transform(sourcePoints.getXs(), sourcePoints.getYs(), 0, size, MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT, screenXs, screenYs, 0, getParallelTransformThreshold());
+        return size;
+    }
+
+    private double toScreenX(final double X, final double MIN_X, final double STEP_X) { return (xAxis.toScale(X) - MIN_X) * STEP_X; }
+
+    private double toScreenY(final double Y, final double MIN_Y, final double STEP_Y, final double HEIGHT) { return HEIGHT - (yAxis.toScale(Y) - MIN_Y) * STEP_Y; }
+
+    /**
+     * Strokes the first SIZE points of the screen buffers. Long solid lines are
+     * submitted in chunks of POLYLINE_CHUNK_SIZE points that share their end
+     * points, dashed lines are submitted at once to keep the dash pattern continuous.
+     */
+    private void strokePolyline(final GraphicsContext CTX, final int SIZE, final boolean CHUNKED) {
+        if (!CHUNKED || SIZE <= POLYLINE_CHUNK_SIZE) {
+            CTX.strokePolyline(screenXs, screenYs, SIZE);
+            return;
+        }
+        for (int start = 0 ; start < SIZE - 1 ; start += POLYLINE_CHUNK_SIZE - 1) {
+            int length = Math.min(POLYLINE_CHUNK_SIZE, SIZE - start);
+            System.arraycopy(screenXs, start, chunkXs, 0, length);
+            System.arraycopy(screenYs, start, chunkYs, 0, length);
+            CTX.strokePolyline(chunkXs, chunkYs, length);
+        }
+    }
+
+    private void ensureScreenBuffers(final int SIZE) {
+        if (screenXs.length >= SIZE) { return; }
+        int newSize = Math.max(SIZE, screenXs.length + (screenXs.length >> 1));
+        screenXs = new double[newSize];
+        screenYs = new double[newSize];
+    }
+
+    private void drawShapeAndImage(final GraphicsContext CTX, final Overlay OVERLAY, final double CHART_WIDTH, final double CHART_HEIGHT,
+                                   final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y) {
+        // Shapes can only be mapped linearly
+        if (null != OVERLAY.getShape() && !isLogarithmic()) {
+            Shape shape = OVERLAY.getShape();
+            ShapeConverter.drawShapeToCtx(shape, CHART_WIDTH, CHART_HEIGHT, MIN_X, MIN_Y, STEP_X, STEP_Y, CTX, OVERLAY.isDoFill() ? OVERLAY.getFill() : Color.TRANSPARENT, OVERLAY.isDoStroke() ? OVERLAY.getStroke() : Color.TRANSPARENT);
+        }
+
+        if (null != OVERLAY.getImage()) {
+            Image  image  = OVERLAY.getImage();
+            double imageX = (xAxis.toScale(OVERLAY.getImagePos().getX()) - MIN_X) * STEP_X;
+            double imageY = CHART_HEIGHT - (yAxis.toScale(OVERLAY.getImagePos().getY()) - MIN_Y) * STEP_Y;
+            double imageW = OVERLAY.getImageSize().getWidth();
+            double imageH = OVERLAY.getImageSize().getHeight();
+            switch(OVERLAY.getImageAnchor()) {
+                case TOP_LEFT:
+                    break;
+                case TOP_RIGHT:
+                    imageX -= imageW;
+                    break;
+                case BOTTOM_LEFT:
+                    imageY -= imageH;
+                    break;
+                case BOTTOM_RIGHT:
+                    imageX -= imageW;
+                    imageY -= imageH;
+                    break;
+                case CENTER:
+                default    :
+                    imageX -= imageW * 0.5;
+                    imageY -= imageH * 0.5;
+                    break;
+            }
+            CTX.drawImage(image, imageX ,imageY, imageW, imageH);
+        }
+    }
+
+    /**
+     * Draws only the points from FROM_INDEX on of a streaming overlay on top of the
+     * existing drawing. Returns false if the new points can't be drawn incrementally,
+     * e.g. for filled overlays or if evicted points might have been visible.
+     */
+    private boolean drawAppendedPoints(final Overlay OVERLAY, final int FROM_INDEX, final int NO_OF_EVICTED) {
+        Canvas canvas = overlayCanvases.get(OVERLAY);
+        if (null == canvas) { return true; }
+        if (!OVERLAY.isVisible() || isLogarithmic()) { return false; }
+        if (RenderMode.DENSITY == OVERLAY.getRenderMode()) { return appendDensity(OVERLAY, canvas, NO_OF_EVICTED); }
+        PointBuffer points     = OVERLAY.getPointBuffer();
+        int         noOfPoints = points.size();
+        double      minX       = xAxis.getMinValue();
+        boolean     evicted    = NO_OF_EVICTED > 0 && noOfPoints > 0 && (!points.isXSorted() || points.getX(0) > minX);
+        boolean     thinned    = OVERLAY.isSymbolsVisible() && SymbolThinning.NONE != OVERLAY.getSymbolThinning();
+        if (OVERLAY.isDoFill() || Decimation.LTTB == OVERLAY.getDecimation() || evicted || thinned || backgroundRenderer.isRendering(OVERLAY)) { return false; }
+        if (FROM_INDEX >= noOfPoints) { return true; }
+
+        double chartHeight = chartArea.getHeight();
+        double minY        = yAxis.getMinValue();
+        double stepX       = chartArea.getWidth() / xAxis.getRange();
+        double stepY       = chartHeight / yAxis.getRange();
+
+        GraphicsContext ctx = canvas.getGraphicsContext2D();
+        ctx.setLineCap(StrokeLineCap.BUTT);
+        setLineStyle(ctx, OVERLAY);
+
+        // Connect the new points to the last point that was already drawn
+        if (OVERLAY.isDoStroke()) {
+            int start = Math.max(0, FROM_INDEX - 1);
+            ensureScreenBuffers(noOfPoints - start);
+            ScreenTransform.transform(points.getXs(), points.getYs(), start, noOfPoints, minX, minY, stepX, stepY, chartHeight, screenXs, screenYs, 0, getParallelTransformThreshold());
+            strokePolyline(ctx, noOfPoints - start, LineStyle.SOLID == OVERLAY.getLineStyle());
+        }
+
+        if (OVERLAY.isSymbolsVisible() && Symbol.NONE != OVERLAY.getSymbol()) {
+            Symbol symbol      = OVERLAY.getSymbol();
+            Color  symbolColor = OVERLAY.getSymbolColor();
+            ensureScreenBuffers(noOfPoints - FROM_INDEX);
+            ScreenTransform.transform(points.getXs(), points.getYs(), FROM_INDEX, noOfPoints, minX, minY, stepX, stepY, chartHeight, screenXs, screenYs, 0, getParallelTransformThreshold());
+            for (int i = 0, n = noOfPoints - FROM_INDEX ; i < n ; i++) {
+                symbolCache.draw(ctx, screenXs[i], screenYs[i], symbol, symbolColor);
+            }
+        }
+        return true;
+    }
+
+    // Adds appended points to the density map of the overlay, shape and image are drawn on top again
+    private boolean appendDensity(final Overlay OVERLAY, final Canvas CANVAS, final int NO_OF_EVICTED) {
+        double chartWidth  = chartArea.getWidth();
+        double chartHeight = chartArea.getHeight();
+        double minX        = xAxis.getMinValue();
+        double minY        = yAxis.getMinValue();
+        double stepX       = chartWidth / xAxis.getRange();
+        double stepY       = chartHeight / yAxis.getRange();
+        return densityRenderer.append(OVERLAY, NO_OF_EVICTED, minX, minY, stepX, stepY,
+                                      () -> drawShapeAndImage(CANVAS.getGraphicsContext2D(), OVERLAY, chartWidth, chartHeight, minX, minY, stepX, stepY));
+    }
+
+    /**
+     * Stamps the symbols for the first SIZE points of the screen buffers. If symbol
+     * thinning is enabled only one symbol per symbol sized cell of the chart area
+     * will be drawn, so the costs are bound by the chart area instead of the data size.
+     */
+    private void drawSymbols(final GraphicsContext CTX, final Overlay OVERLAY, final int SIZE, final double WIDTH, final double HEIGHT) {
+        SymbolThinning thinning = OVERLAY.getSymbolThinning();
+        if (SymbolThinning.NONE != thinning) { occupancyGrid.reset(WIDTH, HEIGHT, symbolCache.getSize()); }
+        stampSymbols(CTX, OVERLAY, SIZE, 0);
+        if (SymbolThinning.CLUSTER == thinning) { drawClusters(CTX, OVERLAY, INDEX -> screenXs[INDEX], INDEX -> screenYs[INDEX]); }
+    }
+
+    // Stamps the symbols for the first SIZE points of the screen buffers into the occupancy grid, clustered points are only counted with their index plus INDEX_OFFSET
+    private void stampSymbols(final GraphicsContext CTX, final Overlay OVERLAY, final int SIZE, final int INDEX_OFFSET) {
+        Symbol symbol      = OVERLAY.getSymbol();
+        Color  symbolColor = OVERLAY.getSymbolColor();
+        switch(OVERLAY.getSymbolThinning()) {
+            case THIN:
+                for (int i = 0 ; i < SIZE ; i++) {
+                    int cell = occupancyGrid.cellIndex(screenXs[i], screenYs[i]);
+                    if (cell < 0 || !occupancyGrid.occupy(cell)) { continue; }
+                    symbolCache.draw(CTX, screenXs[i], screenYs[i], symbol, symbolColor);
+                }
                 break;
-            case TRIANGLE_DOWN_FILLED:
-                ctxOverlays.beginPath();
-                ctxOverlays.moveTo(X, Y + halfSymbolSize);
-                ctxOverlays.lineTo(X - halfSymbolSize, Y - halfSymbolSize);
-                ctxOverlays.lineTo(X + halfSymbolSize, Y - halfSymbolSize);
-                ctxOverlays.lineTo(X , Y + halfSymbolSize);
-                ctxOverlays.closePath();
-                ctxOverlays.fill();
+            case CLUSTER:
+                for (int i = 0 ; i < SIZE ; i++) {
+                    int cell = occupancyGrid.cellIndex(screenXs[i], screenYs[i]);
+                    if (cell < 0) { continue; }
+                    occupancyGrid.count(cell, INDEX_OFFSET + i);
+                }
                 break;
             case NONE:
-            default  :
+            default:
+                for (int i = 0 ; i < SIZE ; i++) {
+                    symbolCache.draw(CTX, screenXs[i], screenYs[i], symbol, symbolColor);
+                }
                 break;
         }
     }
 
-    private void drawStar(final GraphicsContext CTX, final double CENTER_X, final double CENTER_Y, final int SPIKES, final double OUTER_RADIUS, final double INNER_RADIUS) {
-        double rot = Math.PI / 2 * 3;
-        double x;
-        double y;
-        double step=Math.PI/SPIKES;
-
-        CTX.beginPath();
-        CTX.moveTo(CENTER_X,CENTER_Y - OUTER_RADIUS);
-        for(int i = 0 ; i < SPIKES ; i++){
-            x = CENTER_X + Math.cos(rot) * OUTER_RADIUS;
-            y = CENTER_Y + Math.sin(rot) * OUTER_RADIUS;
-            CTX.lineTo(x,y);
-            rot += step;
-
-            x = CENTER_X + Math.cos(rot) * INNER_RADIUS;
-            y = CENTER_Y + Math.sin(rot) * INNER_RADIUS;
-            CTX.lineTo(x,y);
-            rot += step;
+    // Draws the first symbol of every occupied cell with the number of points in the cell, the position of a symbol is looked up by its index
+    private void drawClusters(final GraphicsContext CTX, final Overlay OVERLAY, final IntToDoubleFunction X_OF_INDEX, final IntToDoubleFunction Y_OF_INDEX) {
+        Symbol symbol      = OVERLAY.getSymbol();
+        Color  symbolColor = OVERLAY.getSymbolColor();
+        double badgeOffset = symbolCache.getSize() * 0.5;
+        CTX.setFont(Fonts.latoRegular(Math.max(8, symbolCache.getSize())));
+        CTX.setTextAlign(TextAlignment.LEFT);
+        CTX.setTextBaseline(VPos.BOTTOM);
+        CTX.setFill(symbolColor);
+        for (int n = 0, noOfCells = occupancyGrid.getNoOfOccupiedCells() ; n < noOfCells ; n++) {
+            int    cell  = occupancyGrid.getOccupiedCell(n);
+            int    index = occupancyGrid.getFirstIndex(cell);
+            int    count = occupancyGrid.getCount(cell);
+            double x     = X_OF_INDEX.applyAsDouble(index);
+            double y     = Y_OF_INDEX.applyAsDouble(index);
+            symbolCache.draw(CTX, x, y, symbol, symbolColor);
+            if (count > 1) { CTX.fillText(Integer.toString(count), x + badgeOffset, y - badgeOffset); }
+        }
+        CTX.setFill(OVERLAY.getFill());
+    }
+
+    private void setLineStyle(final GraphicsContext CTX, final Overlay OVERLAY) {
+        CTX.setFill(OVERLAY.getFill());
+        CTX.setStroke(OVERLAY.getStroke());
+        CTX.setLineWidth(OVERLAY.getLineWidth());
+        switch(OVERLAY.getLineStyle()) {
+            case EMPTY      : CTX.setStroke(Color.TRANSPARENT); break;
+            case DASHED     : CTX.setLineDashes(OVERLAY.getLineWidth() * 3); break;
+            case DOTTED     : CTX.setLineDashes(OVERLAY.getLineWidth()); break;
+            case DASH_DOTTED: CTX.setLineDashes(OVERLAY.getLineWidth() * 3, OVERLAY.getLineWidth() * 3, OVERLAY.getLineWidth(), OVERLAY.getLineWidth() * 3); break;
+            case SOLID      :
+            default         : CTX.setLineDashes(null);
+        }
+    }
+
+    /**
+     * Copies the visible slice [FROM, TO) of a point source, which is at most SOURCE_CHUNK_SIZE
+     * points long. A culled slice is framed by the first and the last point of the source to
+     * keep the closing edge of filled paths.
+     */
+    private PointBuffer readPointSource(final PointSource SOURCE, final int FROM, final int TO) {
+        int noOfPoints = SOURCE.size();
+        sourcePoints.clear();
+        if (FROM > 0) { sourcePoints.add(SOURCE.getX(0), SOURCE.getY(0)); }
+        sourcePoints.addAll(SOURCE, FROM, TO);
+        if (TO < noOfPoints) { sourcePoints.add(SOURCE.getX(noOfPoints - 1), SOURCE.getY(noOfPoints - 1)); }
+        return sourcePoints;
+    }
+
+    private PointBuffer decimate(final Overlay OVERLAY, final PointBuffer POINTS, final int FROM, final int TO, final double MIN_X, final double STEP_X, final double WIDTH) {
+        int noOfPoints = TO - FROM;
+        int columns    = (int) Math.ceil(WIDTH);
+        // Only worth it for x sorted points if there are clearly more points than pixel columns
+        if (!OVERLAY.isXMonotonic() || noOfPoints <= columns * DECIMATION_THRESHOLD) { return POINTS; }
+        switch(OVERLAY.getDecimation()) {
+            case M4  :
+                // Large sorted series are pre-reduced with the overlay's pyramid index, which doesn't cover point sources
+                if (noOfPoints > PYRAMID_THRESHOLD && !OVERLAY.hasPointSource() && OVERLAY.getPyramid().isSorted() && !isLogarithmic()) {
+                    OVERLAY.getPyramid().query(MIN_X, xAxis.getMaxValue(), STEP_X, columns, pyramidPoints);
+                    Decimator.m4(pyramidPoints, 0, pyramidPoints.size(), MIN_X, STEP_X, columns, decimatedPoints);
+                } else {
+                    Decimator.m4(POINTS, FROM, TO, MIN_X, STEP_X, columns, decimatedPoints);
+                }
+                return decimatedPoints;
+            case LTTB: Decimator.lttb(POINTS, FROM, TO, columns * 2, decimatedPoints); return decimatedPoints;
+            case NONE:
+            default  : return POINTS;
         }
-        CTX.lineTo(CENTER_X,CENTER_Y - OUTER_RADIUS);
-        CTX.closePath();
     }
 
     private void drawCrossHair(final double X, final double Y) {
@@ -2360,6 +3061,9 @@ public class DataViewer extends Region {
             chartArea.setWidth(xAxisArea.getWidth());
             chartArea.setHeight(yAxisArea.getHeight());
 
+            // Cached symbol images are only valid for one symbol size
+            symbolCache.setSize(chartArea.getHeight() * 0.019);
+
             chartBackgroundRect.setWidth(chartArea.getWidth());
             chartBackgroundRect.setHeight(chartArea.getHeight());
             chartBackgroundRect.relocate(chartArea.getX(), chartArea.getY());
@@ -2381,12 +3085,21 @@ public class DataViewer extends Region {
             imageView.setFitWidth(chartArea.getWidth());
             imageView.setFitHeight(chartArea.getHeight());
 
-            drawOverview();
+            canvasTiles.setWidth(chartArea.getWidth());
+            canvasTiles.setHeight(chartArea.getHeight());
+            canvasTiles.relocate(chartArea.getX(), chartArea.getY());
 
             canvasGrid.setWidth(chartArea.getWidth());
             canvasGrid.setHeight(chartArea.getHeight());
             canvasGrid.relocate(chartArea.getX(), chartArea.getY());
 
+            overlayLayer.setPrefSize(chartArea.getWidth(), chartArea.getHeight());
+            overlayLayer.relocate(chartArea.getX(), chartArea.getY());
+            overlayCanvases.values().forEach(canvas -> {
+                canvas.setWidth(chartArea.getWidth());
+                canvas.setHeight(chartArea.getHeight());
+            });
+
             canvasOverlays.setWidth(chartArea.getWidth());
             canvasOverlays.setHeight(chartArea.getHeight());
             canvasOverlays.relocate(chartArea.getX(), chartArea.getY());
@@ -2467,11 +3180,9 @@ public class DataViewer extends Region {
                 selectionRect.setHeight(chartArea.getHeight() * selectionRectHeightScale);
             }
 
-            drawCrossHair(lastX, lastY);
-
             recalc();
 
-            redraw();
+            scheduleRedraw(Layer.IMAGE, Layer.GRID, Layer.OVERLAYS, Layer.OVERVIEW, Layer.CROSSHAIR);
         }
     }
 }
@@ -16,6 +16,7 @@
 
 package eu.hansolo.fx.dataviewer;
 
+import eu.hansolo.fx.dataviewer.tiles.TileSource;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
@@ -111,6 +112,11 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
         return (B)this;
     }
 
+    public final B parallelTransformThreshold(final int THRESHOLD) {
+        properties.put("parallelTransformThreshold", new SimpleIntegerProperty(THRESHOLD));
+        return (B)this;
+    }
+
     public final B decimals(final int DECIMALS) {
         properties.put("decimals", new SimpleIntegerProperty(DECIMALS));
         return (B)this;
@@ -126,6 +132,11 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
         return (B)this;
     }
 
+    public final B tileSource(final TileSource SOURCE) {
+        properties.put("tileSource", new SimpleObjectProperty(SOURCE));
+        return (B)this;
+    }
+
     public final B xAxisDecimals(final int DECIMALS) {
         properties.put("xAxisDecimals", new SimpleIntegerProperty(DECIMALS));
         return (B)this;
@@ -251,6 +262,11 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
         return (B)this;
     }
 
+    public final B axisPanCache(final boolean PAN_CACHE) {
+        properties.put("axisPanCache", new SimpleBooleanProperty(PAN_CACHE));
+        return (B)this;
+    }
+
     public final B xAxisAutoFontSize(final boolean AUTO) {
         properties.put("xAxisAutoFontSize", new SimpleBooleanProperty(AUTO));
         return (B)this;
@@ -291,6 +307,16 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
         return (B)this;
     }
 
+    public final B xAxisType(final AxisType TYPE) {
+        properties.put("xAxisType", new SimpleObjectProperty<>(TYPE));
+        return (B)this;
+    }
+
+    public final B yAxisType(final AxisType TYPE) {
+        properties.put("yAxisType", new SimpleObjectProperty<>(TYPE));
+        return (B)this;
+    }
+
     public final B centerCrossVisible(final boolean VISIBLE) {
         properties.put("centerCrossVisible", new SimpleBooleanProperty(VISIBLE));
         return (B)this;
@@ -453,6 +479,8 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
                 CONTROL.setAxisColor(((ObjectProperty<Color>) properties.get(key)).get());
             } else if ("axisBackgroundColor".equals(key)) {
                 CONTROL.setAxisBackgroundColor(((ObjectProperty<Color>) properties.get(key)).get());
+            } else if ("parallelTransformThreshold".equals(key)) {
+                CONTROL.setParallelTransformThreshold(((IntegerProperty) properties.get(key)).get());
             } else if ("decimals".equals(key)) {
                 CONTROL.setDecimals(((IntegerProperty) properties.get(key)).get());
             } else if ("locale".equals(key)) {
@@ -467,6 +495,8 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
                 CONTROL.setYAxisMax(((DoubleProperty) properties.get(key)).get());
             } else if ("image".equals(key)) {
                 CONTROL.setImage(((ObjectProperty<Image>) properties.get(key)).get());
+            } else if ("tileSource".equals(key)) {
+                CONTROL.setTileSource(((ObjectProperty<TileSource>) properties.get(key)).get());
             } else if ("xAxisDecimals".equals(key)) {
                 CONTROL.setXAxisDecimals(((IntegerProperty) properties.get(key)).get());
             } else if ("yAxisDecimals".equals(key)) {
@@ -515,6 +545,8 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
                 CONTROL.setAxisTickLabelFontSize(((DoubleProperty) properties.get(key)).get());
             } else if ("axisTitleFontSize".equals(key)) {
                 CONTROL.setAxisTitleFontSize(((DoubleProperty) properties.get(key)).get());
+            } else if ("axisPanCache".equals(key)) {
+                CONTROL.setAxisPanCache(((BooleanProperty) properties.get(key)).get());
             } else if ("xAxisAutoFontSize".equals(key)) {
                 CONTROL.setXAxisAutoFontSize(((BooleanProperty) properties.get(key)).get());
             } else if ("xAxisTickLabelFontSize".equals(key)) {
@@ -531,6 +563,10 @@ public class DataViewerBuilder<B extends DataViewerBuilder<B>> {
                 CONTROL.setXAxisPosition(((ObjectProperty<Position>) properties.get(key)).get());
             } else if ("yAxisPosition".equals(key)) {
                 CONTROL.setYAxisPosition(((ObjectProperty<Position>) properties.get(key)).get());
+            } else if ("xAxisType".equals(key)) {
+                CONTROL.setXAxisType(((ObjectProperty<AxisType>) properties.get(key)).get());
+            } else if ("yAxisType".equals(key)) {
+                CONTROL.setYAxisType(((ObjectProperty<AxisType>) properties.get(key)).get());
             } else if ("centerCrossVisible".equals(key)) {
                 CONTROL.setCenterCrossVisible(((BooleanProperty) properties.get(key)).get());
             } else if ("centerCrossColor".equals(key)) {
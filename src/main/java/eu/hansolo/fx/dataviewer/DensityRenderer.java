@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer;
+
+import eu.hansolo.fx.dataviewer.Overlay.BinShape;
+import eu.hansolo.fx.dataviewer.tools.DensityMap;
+import eu.hansolo.fx.dataviewer.tools.Helper;
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import eu.hansolo.fx.dataviewer.tools.PointSource;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Renders overlays with RenderMode.DENSITY. The points are binned into a
+ * DensityMap with the resolution of the canvas on the background executor
+ * and the colour mapped histogram is drawn as a WritableImage on the FX thread.
+ * The histogram is kept per overlay, so that appended points can be added to
+ * it without binning all points again as long as the view didn't change.
+ * All methods have to be called on the FX application thread.
+ */
+class DensityRenderer {
+    private final Map<Overlay, State> states;
+
+
+    // ******************** Constructors **************************************
+    DensityRenderer() {
+        states = new HashMap<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Bins the points [FROM, TO) of the given overlay in the background. ON_FINISHED
+     * will be called on the FX thread once the histogram has been drawn. ON_STALE will
+     * be called instead if binned points have been modified or evicted while binning.
+     */
+    void render(final Overlay OVERLAY, final Canvas CANVAS, final int FROM, final int TO, final double MIN_X, final double MIN_Y,
+                final double STEP_X, final double STEP_Y, final Runnable ON_FINISHED, final Runnable ON_STALE) {
+        cancel(OVERLAY);
+
+        int width  = (int) Math.ceil(CANVAS.getWidth());
+        int height = (int) Math.ceil(CANVAS.getHeight());
+        if (width <= 0 || height <= 0) { return; }
+
+        PointSource source = OVERLAY.getPointSource();
+        int         from   = Math.max(0, FROM);
+        int         to     = Math.min(source.size(), TO);
+
+        State state = new State(CANVAS, MIN_X, MIN_Y, STEP_X, STEP_Y);
+        state.map          = new DensityMap(width, height, OVERLAY.getBinSize(), BinShape.HEX == OVERLAY.getBinShape());
+        // Points up to the current size are either binned or culled, only points appended later have to be added
+        state.appendedFrom = OVERLAY.getPointBuffer().size();
+        state.running      = true;
+        states.put(OVERLAY, state);
+
+        Runnable binning;
+        if (OVERLAY.hasPointSource()) {
+            binning = () -> state.map.add(source, from, to, MIN_X, MIN_Y, STEP_X, STEP_Y);
+        } else {
+            // Point buffers are binned from their backing arrays without a copy, appended points don't touch the binned
+            // range but if one of the binned points changes or is evicted while binning the result is stale
+            PointBuffer points = OVERLAY.getPointBuffer();
+            double[]    xs     = points.getXs();
+            double[]    ys     = points.getYs();
+            state.watch(points, FROM_INDEX -> { if (FROM_INDEX < to) { state.stale = true; }});
+            binning = () -> state.map.add(xs, ys, from, to, MIN_X, MIN_Y, STEP_X, STEP_Y);
+        }
+
+        state.future = BackgroundRenderer.EXECUTOR.submit(() -> {
+            if (state.cancelled) { return; }
+            binning.run();
+            if (state.cancelled) { return; }
+            int[] pixels = new int[width * height];
+            state.map.toPixels(pixels);
+            Platform.runLater(() -> {
+                if (state.cancelled) { return; }
+                state.unwatch();
+                state.running = false;
+                state.pixels  = pixels;
+                state.image   = new WritableImage(width, height);
+                if (state.stale) {
+                    states.remove(OVERLAY);
+                    draw(state);
+                    ON_STALE.run();
+                    return;
+                }
+                // Points that have been appended while binning
+                if (OVERLAY.getPointBuffer().size() > state.appendedFrom) {
+                    addPoints(OVERLAY, state);
+                    state.map.toPixels(state.pixels);
+                }
+                draw(state);
+                ON_FINISHED.run();
+            });
+        });
+    }
+
+    /**
+     * Adds the points that have been appended to the overlay to its histogram and
+     * redraws it, ON_DRAWN will be called after the histogram has been drawn. Returns
+     * false if the histogram has to be rendered again because the view changed or
+     * points have been evicted.
+     */
+    boolean append(final Overlay OVERLAY, final int NO_OF_EVICTED, final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y, final Runnable ON_DRAWN) {
+        State state = states.get(OVERLAY);
+        if (null == state || !state.isView(MIN_X, MIN_Y, STEP_X, STEP_Y)) { return false; }
+        if (state.running) {
+            // Will be picked up when binning is finished
+            state.appendedFrom = Math.max(0, state.appendedFrom - NO_OF_EVICTED);
+            if (NO_OF_EVICTED > 0) { state.stale = true; }
+            return true;
+        }
+        if (NO_OF_EVICTED > 0) { return false; }
+        addPoints(OVERLAY, state);
+        state.map.toPixels(state.pixels);
+        draw(state);
+        ON_DRAWN.run();
+        return true;
+    }
+
+    void cancel(final Overlay OVERLAY) {
+        State state = states.remove(OVERLAY);
+        if (null != state) { state.cancel(); }
+    }
+
+    void cancelAll() {
+        states.values().forEach(State::cancel);
+        states.clear();
+    }
+
+    // Bins the points appended since the last binning, appended x sorted points outside of the view are skipped
+    private void addPoints(final Overlay OVERLAY, final State STATE) {
+        PointBuffer points = OVERLAY.getPointBuffer();
+        int         size   = points.size();
+        double[]    xs     = points.getXs();
+        int         from   = Math.min(STATE.appendedFrom, size);
+        int         to     = size;
+        if (points.isXSorted()) {
+            from = Math.max(from, Helper.lowerBound(xs, size, STATE.minX));
+            to   = Math.min(to, Helper.upperBound(xs, size, STATE.minX + STATE.map.getWidth() / STATE.stepX));
+        }
+        if (from < to) { STATE.map.add(xs, points.getYs(), from, to, STATE.minX, STATE.minY, STATE.stepX, STATE.stepY); }
+        STATE.appendedFrom = size;
+    }
+
+    private void draw(final State STATE) {
+        int width  = STATE.map.getWidth();
+        int height = STATE.map.getHeight();
+        STATE.image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), STATE.pixels, 0, width);
+        GraphicsContext ctx = STATE.canvas.getGraphicsContext2D();
+        ctx.clearRect(0, 0, STATE.canvas.getWidth(), STATE.canvas.getHeight());
+        ctx.drawImage(STATE.image, 0, 0);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class State {
+        private final    Canvas        canvas;
+        private final    double        minX;
+        private final    double        minY;
+        private final    double        stepX;
+        private final    double        stepY;
+        private          DensityMap    map;
+        private          int[]         pixels;
+        private          WritableImage image;
+        private          int           appendedFrom;
+        private          boolean       running;
+        private          boolean       stale;
+        private          Future<?>     future;
+        private          PointBuffer   watched;
+        private          IntConsumer   watcher;
+        private volatile boolean       cancelled;
+
+        State(final Canvas CANVAS, final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y) {
+            canvas = CANVAS;
+            minX   = MIN_X;
+            minY   = MIN_Y;
+            stepX  = STEP_X;
+            stepY  = STEP_Y;
+        }
+
+        boolean isView(final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y) {
+            return Double.compare(minX, MIN_X) == 0 && Double.compare(minY, MIN_Y) == 0 &&
+                   Double.compare(stepX, STEP_X) == 0 && Double.compare(stepY, STEP_Y) == 0;
+        }
+
+        void watch(final PointBuffer POINTS, final IntConsumer WATCHER) {
+            watched = POINTS;
+            watcher = WATCHER;
+            watched.addChangeListener(watcher);
+        }
+
+        void unwatch() {
+            if (null == watched) { return; }
+            watched.removeChangeListener(watcher);
+            watched = null;
+            watcher = null;
+        }
+
+        void cancel() {
+            cancelled = true;
+            unwatch();
+            if (null != future) { future.cancel(false); }
+        }
+    }
+}
@@ -20,15 +20,20 @@ import eu.hansolo.fx.dataviewer.event.OverlayEvent;
 import eu.hansolo.fx.dataviewer.event.OverlayEvent.Type;
 import eu.hansolo.fx.dataviewer.event.OverlayEventListener;
 import eu.hansolo.fx.dataviewer.tools.Helper;
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import eu.hansolo.fx.dataviewer.tools.PointPredicate;
+import eu.hansolo.fx.dataviewer.tools.PointPyramid;
+import eu.hansolo.fx.dataviewer.tools.PointSource;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.DoublePropertyBase;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.IntegerPropertyBase;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.StringProperty;
 import javafx.beans.property.StringPropertyBase;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Dimension2D;
 import javafx.geometry.Point2D;
@@ -41,8 +46,11 @@ import javafx.util.Pair;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 
 public class Overlay {
@@ -65,11 +73,16 @@ public class Overlay {
         // ******************** Methods ***************************************
         public int getId() { return id; }
     }
+    public enum Decimation { NONE, M4, LTTB }
+    public enum RenderMode { IMMEDIATE, BACKGROUND, DENSITY }
+    public enum BinShape { SQUARE, HEX }
+    public enum SymbolThinning { NONE, THIN, CLUSTER }
     public  static final Paint        DEFAULT_FILL         = Color.rgb(128, 128,128, 0.5);
     public  static final Color        DEFAULT_STROKE       = Color.rgb(128, 128, 128);
     public  static final Color        DEFAULT_SYMBOL_COLOR = Color.rgb(128, 128, 128);
     public  static final Symbol       DEFAULT_SYMBOL       = Symbol.CIRCLE;
     private        final OverlayEvent UPDATE_EVENT         = new OverlayEvent(this, Type.UPDATE);
+    private        final OverlayEvent VISIBILITY_EVENT     = new OverlayEvent(this, Type.VISIBILITY);
 
     private String                                     _name;
     private StringProperty                             name;
@@ -103,8 +116,31 @@ public class Overlay {
     private ObjectProperty<Pos>                        imageAnchor;
     private boolean                                    _visible;
     private BooleanProperty                            visible;
-    private ObservableList<Pair<Double, Double>>       points;
+    private Decimation                                 _decimation;
+    private ObjectProperty<Decimation>                 decimation;
+    private boolean                                    _xMonotonic;
+    private BooleanProperty                            xMonotonic;
+    private boolean                                    _streaming;
+    private BooleanProperty                            streaming;
+    private int                                        _capacity;
+    private IntegerProperty                            capacity;
+    private RenderMode                                 _renderMode;
+    private ObjectProperty<RenderMode>                 renderMode;
+    private SymbolThinning                             _symbolThinning;
+    private ObjectProperty<SymbolThinning>             symbolThinning;
+    private BinShape                                   _binShape;
+    private ObjectProperty<BinShape>                   binShape;
+    private double                                     _binSize;
+    private DoubleProperty                             binSize;
+    private PointBuffer                                pointBuffer;
+    private PointList                                  points;
+    private PointPyramid                               pyramid;
+    private PointSource                                pointSource;
     private CopyOnWriteArrayList<OverlayEventListener> listeners;
+    private int                                        updateDepth;
+    private boolean                                    pendingUpdate;
+    private boolean                                    pendingVisibility;
+    private OverlayEvent                               pendingAppend;
 
 
     // ******************** Constructors **************************************
@@ -173,7 +209,16 @@ public class Overlay {
         _imageSize      = null == IMAGE ? new Dimension2D(0, 0) : new Dimension2D(IMAGE.getWidth(), IMAGE.getHeight());
         _imageAnchor    = Pos.CENTER;
         _visible        = true;
-        points          = FXCollections.observableArrayList();
+        _decimation     = Decimation.NONE;
+        _xMonotonic     = false;
+        _streaming      = false;
+        _capacity       = 0;
+        _renderMode     = RenderMode.IMMEDIATE;
+        _symbolThinning = SymbolThinning.NONE;
+        _binShape       = BinShape.SQUARE;
+        _binSize        = 4;
+        pointBuffer     = new PointBuffer(POINTS.size());
+        points          = new PointList(pointBuffer);
         listeners       = new CopyOnWriteArrayList<>();
 
         points.setAll(POINTS);
@@ -477,7 +522,7 @@ public class Overlay {
     public void setVisible(final boolean VISIBLE) {
         if (null == visible) {
             _visible = VISIBLE;
-            fireOverlayEvent(UPDATE_EVENT);
+            fireOverlayEvent(VISIBILITY_EVENT);
         } else {
             visible.set(VISIBLE);
         }
@@ -485,7 +530,7 @@ public class Overlay {
     public BooleanProperty visibleProperty() {
         if (null == visible) {
             visible = new BooleanPropertyBase(_visible) {
-                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override protected void invalidated() { fireOverlayEvent(VISIBILITY_EVENT); }
                 @Override public Object getBean() { return Overlay.this; }
                 @Override public String getName() { return "visible"; }
             };
@@ -493,6 +538,206 @@ public class Overlay {
         return visible;
     }
 
+    public Decimation getDecimation() { return null == decimation ? _decimation : decimation.get(); }
+    public void setDecimation(final Decimation DECIMATION) {
+        if (null == decimation) {
+            _decimation = DECIMATION;
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            decimation.set(DECIMATION);
+        }
+    }
+    public ObjectProperty<Decimation> decimationProperty() {
+        if (null == decimation) {
+            decimation = new ObjectPropertyBase<Decimation>(_decimation) {
+                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "decimation"; }
+            };
+            _decimation = null;
+        }
+        return decimation;
+    }
+
+    /**
+     * Returns true if the points were declared as x monotonic or if their
+     * x values were detected to be in ascending order.
+     */
+    public boolean isXMonotonic() { return (null == xMonotonic ? _xMonotonic : xMonotonic.get()) || getPointSource().isXSorted(); }
+    public void setXMonotonic(final boolean MONOTONIC) {
+        if (null == xMonotonic) {
+            _xMonotonic = MONOTONIC;
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            xMonotonic.set(MONOTONIC);
+        }
+    }
+    public BooleanProperty xMonotonicProperty() {
+        if (null == xMonotonic) {
+            xMonotonic = new BooleanPropertyBase(_xMonotonic) {
+                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "xMonotonic"; }
+            };
+        }
+        return xMonotonic;
+    }
+
+    /**
+     * In streaming mode appended points will be drawn as a new segment on top
+     * of the existing drawing instead of repainting the whole chart.
+     */
+    public boolean isStreaming() { return null == streaming ? _streaming : streaming.get(); }
+    public void setStreaming(final boolean STREAMING) {
+        if (null == streaming) {
+            _streaming = STREAMING;
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            streaming.set(STREAMING);
+        }
+    }
+    public BooleanProperty streamingProperty() {
+        if (null == streaming) {
+            streaming = new BooleanPropertyBase(_streaming) {
+                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "streaming"; }
+            };
+        }
+        return streaming;
+    }
+
+    /**
+     * The max. number of points of this overlay, 0 means unlimited.
+     * If the capacity is exceeded the oldest points will be evicted in O(1).
+     */
+    public int getCapacity() { return null == capacity ? _capacity : capacity.get(); }
+    public void setCapacity(final int CAPACITY) {
+        if (null == capacity) {
+            _capacity = Helper.clamp(0, Integer.MAX_VALUE, CAPACITY);
+            evict();
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            capacity.set(CAPACITY);
+        }
+    }
+    public IntegerProperty capacityProperty() {
+        if (null == capacity) {
+            capacity = new IntegerPropertyBase(_capacity) {
+                @Override protected void invalidated() {
+                    set(Helper.clamp(0, Integer.MAX_VALUE, get()));
+                    evict();
+                    fireOverlayEvent(UPDATE_EVENT);
+                }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "capacity"; }
+            };
+        }
+        return capacity;
+    }
+
+    /**
+     * In BACKGROUND mode the points and symbols of the overlay will be rasterized
+     * on a background thread so that large overlays don't block the FX thread.
+     * In DENSITY mode the points will be binned into a colour mapped 2D histogram
+     * on a background thread instead of drawing lines and symbols.
+     */
+    public RenderMode getRenderMode() { return null == renderMode ? _renderMode : renderMode.get(); }
+    public void setRenderMode(final RenderMode MODE) {
+        if (null == renderMode) {
+            _renderMode = MODE;
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            renderMode.set(MODE);
+        }
+    }
+    public ObjectProperty<RenderMode> renderModeProperty() {
+        if (null == renderMode) {
+            renderMode = new ObjectPropertyBase<RenderMode>(_renderMode) {
+                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "renderMode"; }
+            };
+            _renderMode = null;
+        }
+        return renderMode;
+    }
+
+    /**
+     * THIN only draws the first symbol per symbol sized screen cell, CLUSTER
+     * draws one symbol per cell with a badge that shows the number of symbols in it.
+     */
+    public SymbolThinning getSymbolThinning() { return null == symbolThinning ? _symbolThinning : symbolThinning.get(); }
+    public void setSymbolThinning(final SymbolThinning THINNING) {
+        if (null == symbolThinning) {
+            _symbolThinning = THINNING;
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            symbolThinning.set(THINNING);
+        }
+    }
+    public ObjectProperty<SymbolThinning> symbolThinningProperty() {
+        if (null == symbolThinning) {
+            symbolThinning = new ObjectPropertyBase<SymbolThinning>(_symbolThinning) {
+                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "symbolThinning"; }
+            };
+            _symbolThinning = null;
+        }
+        return symbolThinning;
+    }
+
+    /**
+     * Shape of the bins that are used in the DENSITY render mode.
+     */
+    public BinShape getBinShape() { return null == binShape ? _binShape : binShape.get(); }
+    public void setBinShape(final BinShape SHAPE) {
+        if (null == binShape) {
+            _binShape = SHAPE;
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            binShape.set(SHAPE);
+        }
+    }
+    public ObjectProperty<BinShape> binShapeProperty() {
+        if (null == binShape) {
+            binShape = new ObjectPropertyBase<BinShape>(_binShape) {
+                @Override protected void invalidated() { fireOverlayEvent(UPDATE_EVENT); }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "binShape"; }
+            };
+            _binShape = null;
+        }
+        return binShape;
+    }
+
+    /**
+     * Width of the bins in pixels that are used in the DENSITY render mode.
+     */
+    public double getBinSize() { return null == binSize ? _binSize : binSize.get(); }
+    public void setBinSize(final double SIZE) {
+        if (null == binSize) {
+            _binSize = Helper.clamp(1, 100, SIZE);
+            fireOverlayEvent(UPDATE_EVENT);
+        } else {
+            binSize.set(SIZE);
+        }
+    }
+    public DoubleProperty binSizeProperty() {
+        if (null == binSize) {
+            binSize = new DoublePropertyBase(_binSize) {
+                @Override protected void invalidated() {
+                    set(Helper.clamp(1, 100, get()));
+                    fireOverlayEvent(UPDATE_EVENT);
+                }
+                @Override public Object getBean() { return Overlay.this; }
+                @Override public String getName() { return "binSize"; }
+            };
+        }
+        return binSize;
+    }
+
     public Dimension2D getImageSize() { return null == imageSize ? _imageSize : imageSize.get(); }
     public void setImageSize(final Dimension2D SIZE) {
         if (null == imageSize) {
@@ -522,21 +767,199 @@ public class Overlay {
     }
 
     public ObservableList<Pair<Double,Double>> getPoints() { return points; }
+    public PointBuffer getPointBuffer() { return pointBuffer; }
+    public int getNoOfPoints() { return getPointSource().size(); }
+
+    /**
+     * Returns the external point source of this overlay or the point buffer if there is none.
+     */
+    public PointSource getPointSource() { return null == pointSource ? pointBuffer : pointSource; }
+    /**
+     * Uses the given source (e.g. a MappedPointSource) for the points of this overlay
+     * instead of the point buffer. Large sources will only be read in the visible range
+     * and reduced to the resolution of the chart. As long as a source is set all methods
+     * that modify the points will throw an UnsupportedOperationException.
+     * Setting null switches back to the point buffer.
+     */
+    public void setPointSource(final PointSource SOURCE) {
+        pointSource = SOURCE == pointBuffer ? null : SOURCE;
+        fireOverlayEvent(UPDATE_EVENT);
+    }
+    public boolean hasPointSource() { return null != pointSource; }
+    public PointPyramid getPyramid() {
+        if (null == pyramid) { pyramid = new PointPyramid(pointBuffer); }
+        return pyramid;
+    }
+    public void setPoints(final double[] XS, final double[] YS) {
+        if (XS.length != YS.length) { throw new IllegalArgumentException("XS and YS must contain an equal number of coordinates"); }
+        setPoints(XS, YS, 0, XS.length);
+    }
+    public void setPoints(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        checkWritable();
+        points.setAll(XS, YS, OFFSET, LENGTH);
+        fireOverlayEvent(UPDATE_EVENT);
+    }
+    public void appendPoints(final double[] XS, final double[] YS) {
+        if (XS.length != YS.length) { throw new IllegalArgumentException("XS and YS must contain an equal number of coordinates"); }
+        appendPoints(XS, YS, 0, XS.length);
+    }
+    public void appendPoints(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        checkWritable();
+        points.addAll(XS, YS, OFFSET, LENGTH);
+        int noOfEvicted = evict();
+        if (isStreaming()) {
+            fireOverlayEvent(new OverlayEvent(this, Type.APPEND, Math.max(0, pointBuffer.size() - LENGTH), noOfEvicted));
+        } else {
+            fireOverlayEvent(UPDATE_EVENT);
+        }
+    }
     public void setPoints(final Pair<Double,Double>... POINTS) { setPoints(Arrays.asList(POINTS)); }
     public void setPoints(final List<Pair<Double,Double>> POINTS) {
+        checkWritable();
         points.setAll(POINTS);
         fireOverlayEvent(UPDATE_EVENT);
     }
     public void addPoints(final Pair<Double,Double>... POINTS) { addPoints(Arrays.asList(POINTS)); }
     public void addPoints(final List<Pair<Double,Double>> POINTS) {
+        checkWritable();
         points.addAll(POINTS);
-        fireOverlayEvent(UPDATE_EVENT);
+        int noOfEvicted = evict();
+        if (isStreaming()) {
+            fireOverlayEvent(new OverlayEvent(this, Type.APPEND, Math.max(0, pointBuffer.size() - POINTS.size()), noOfEvicted));
+        } else {
+            fireOverlayEvent(UPDATE_EVENT);
+        }
     }
     public void removePoints(final Pair<Double,Double>... POINTS) { removePoints(Arrays.asList(POINTS)); }
-    public void removePoints(final List<Pair<Double,Double>> POINTS) { POINTS.forEach(point -> removePoint(point)); }
+    /**
+     * Removes the first occurrence of each of the given points in one pass over the points.
+     */
+    public void removePoints(final List<Pair<Double,Double>> POINTS) {
+        checkWritable();
+        if (POINTS.isEmpty()) { return; }
+        Map<Pair<Double,Double>, Integer> toRemove = new HashMap<>(POINTS.size() * 2);
+        POINTS.forEach(point -> toRemove.merge(point, 1, Integer::sum));
+        int noOfRemoved = points.removeIf((x, y) -> {
+            if (toRemove.isEmpty()) { return false; }
+            Pair<Double,Double> point = new Pair<>(x, y);
+            Integer             count = toRemove.get(point);
+            if (null == count) { return false; }
+            if (1 == count) { toRemove.remove(point); } else { toRemove.put(point, count - 1); }
+            return true;
+        });
+        if (noOfRemoved > 0) { fireOverlayEvent(UPDATE_EVENT); }
+    }
+    /**
+     * Removes all points that match the predicate in one pass and returns their number.
+     */
+    public int removePointsIf(final PointPredicate PREDICATE) {
+        checkWritable();
+        int noOfRemoved = points.removeIf(PREDICATE);
+        if (noOfRemoved > 0) { fireOverlayEvent(UPDATE_EVENT); }
+        return noOfRemoved;
+    }
+    /**
+     * Removes the points [FROM, TO).
+     */
+    public void removePointRange(final int FROM, final int TO) {
+        checkWritable();
+        points.remove(FROM, TO);
+        fireOverlayEvent(UPDATE_EVENT);
+    }
+    public void removePoint(final int INDEX) {
+        checkWritable();
+        points.remove(INDEX);
+        fireOverlayEvent(UPDATE_EVENT);
+    }
     public void addPoint(final double X, final double Y) { addPoint(new Pair<>(X, Y)); }
-    public void addPoint(final Pair<Double,Double> POINT) { points.add(POINT); }
-    public void removePoint(final Pair<Double,Double> POINT) { if (points.contains(POINT)) { points.remove(POINT); }}
+    public void addPoint(final Pair<Double,Double> POINT) {
+        checkWritable();
+        points.add(POINT);
+        int noOfEvicted = evict();
+        if (isStreaming()) {
+            fireOverlayEvent(new OverlayEvent(this, Type.APPEND, Math.max(0, pointBuffer.size() - 1), noOfEvicted));
+        } else {
+            fireOverlayEvent(UPDATE_EVENT);
+        }
+    }
+    public void removePoint(final Pair<Double,Double> POINT) {
+        checkWritable();
+        int index = pointBuffer.indexOf(POINT.getKey(), POINT.getValue());
+        if (index < 0) { return; }
+        points.remove(index);
+        fireOverlayEvent(UPDATE_EVENT);
+    }
+
+
+    private void checkWritable() {
+        if (null != pointSource) { throw new UnsupportedOperationException("Points of an overlay with a point source can't be modified"); }
+    }
+
+    // Removes the oldest points that exceed the capacity and returns their number
+    private int evict() {
+        int capacity    = getCapacity();
+        int noOfEvicted = capacity > 0 ? Math.max(0, pointBuffer.size() - capacity) : 0;
+        if (noOfEvicted > 0) { points.removeFirst(noOfEvicted); }
+        return noOfEvicted;
+    }
+
+
+    /**
+     * Suspends all events until the matching call of endUpdate(), calls may be nested.
+     */
+    public void beginUpdate() { updateDepth++; }
+    /**
+     * Fires one consolidated event for all changes since the outermost beginUpdate(). Appends
+     * are merged into one APPEND event as long as nothing else changed, otherwise one UPDATE
+     * event will be fired.
+     */
+    public void endUpdate() {
+        if (0 == updateDepth) { throw new IllegalStateException("endUpdate() without beginUpdate()"); }
+        if (--updateDepth > 0) { return; }
+        boolean      update     = pendingUpdate;
+        boolean      visibility = pendingVisibility;
+        OverlayEvent append     = pendingAppend;
+        pendingUpdate     = false;
+        pendingVisibility = false;
+        pendingAppend     = null;
+        if (update) {
+            fireOverlayEvent(UPDATE_EVENT);
+        } else if (null != append) {
+            fireOverlayEvent(append);
+        }
+        if (visibility) { fireOverlayEvent(VISIBILITY_EVENT); }
+    }
+    /**
+     * Applies all changes of UPDATE to this overlay with a single event, e.g.
+     * overlay.update(o -> { o.setStroke(Color.RED); o.setLineWidth(2); o.setPoints(xs, ys); });
+     */
+    public void update(final Consumer<Overlay> UPDATE) {
+        beginUpdate();
+        try {
+            UPDATE.accept(this);
+        } finally {
+            endUpdate();
+        }
+    }
+    public boolean isUpdating() { return updateDepth > 0; }
+
+    // Collects the event while an update is in progress
+    private void deferOverlayEvent(final OverlayEvent EVENT) {
+        switch(EVENT.getType()) {
+            case APPEND:
+                if (null == pendingAppend) {
+                    pendingAppend = EVENT;
+                } else {
+                    // Evicted points shift the index of the points that are still pending
+                    int fromIndex = Math.max(0, Math.min(pendingAppend.getFromIndex() - EVENT.getNoOfEvicted(), EVENT.getFromIndex()));
+                    pendingAppend = new OverlayEvent(this, Type.APPEND, fromIndex, pendingAppend.getNoOfEvicted() + EVENT.getNoOfEvicted());
+                }
+                break;
+            case VISIBILITY: pendingVisibility = true; break;
+            case UPDATE    :
+            default        : pendingUpdate = true; break;
+        }
+    }
 
 
     // ******************** EventHandling *************************************
@@ -544,5 +967,11 @@ public class Overlay {
     public void addOverlayEventListener(final OverlayEventListener LISTENER) { if (!listeners.contains(LISTENER)) { listeners.add(LISTENER); }}
     public void removeOverlayEventListener(final OverlayEventListener LISTENER) { if (listeners.contains(LISTENER)) { listeners.remove(LISTENER); }}
 
-    public void fireOverlayEvent(final OverlayEvent EVENT) { for(OverlayEventListener listener : listeners) { listener.onOverviewEvent(EVENT); }}
+    public void fireOverlayEvent(final OverlayEvent EVENT) {
+        if (updateDepth > 0) {
+            deferOverlayEvent(EVENT);
+            return;
+        }
+        for(OverlayEventListener listener : listeners) { listener.onOverviewEvent(EVENT); }
+    }
 }
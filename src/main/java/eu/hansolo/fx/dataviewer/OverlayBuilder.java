@@ -16,15 +16,24 @@
 
 package eu.hansolo.fx.dataviewer;
 
+import eu.hansolo.fx.dataviewer.Overlay.BinShape;
+import eu.hansolo.fx.dataviewer.Overlay.Decimation;
 import eu.hansolo.fx.dataviewer.Overlay.LineStyle;
+import eu.hansolo.fx.dataviewer.Overlay.RenderMode;
 import eu.hansolo.fx.dataviewer.Overlay.Symbol;
+import eu.hansolo.fx.dataviewer.Overlay.SymbolThinning;
 import eu.hansolo.fx.dataviewer.event.OverlayEventListener;
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import eu.hansolo.fx.dataviewer.tools.PointParser;
+import eu.hansolo.fx.dataviewer.tools.PointSource;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -37,8 +46,13 @@ import javafx.scene.paint.Paint;
 import javafx.scene.shape.Shape;
 import javafx.util.Pair;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.DoubleConsumer;
 
 import static eu.hansolo.fx.dataviewer.tools.Helper.convertXYPairsToList;
 
@@ -66,6 +80,24 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
         return (B)this;
     }
 
+    /**
+     * The file will be parsed with the streaming PointParser when the overlay is built.
+     */
+    public final B xyPairs(final Path FILE) {
+        properties.put("xyPairsFile", new SimpleObjectProperty<>(FILE));
+        return (B) this;
+    }
+
+    public final B xyPairs(final Reader READER) {
+        properties.put("xyPairsReader", new SimpleObjectProperty<>(READER));
+        return (B) this;
+    }
+
+    public final B loadProgress(final DoubleConsumer PROGRESS) {
+        properties.put("loadProgress", new SimpleObjectProperty<>(PROGRESS));
+        return (B) this;
+    }
+
     public final B points(final Double[]... POINTS) {
         properties.put("pointsArray", new SimpleObjectProperty<>(POINTS));
         return (B) this;
@@ -76,6 +108,12 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
         return (B) this;
     }
 
+    public final B points(final double[] XS, final double[] YS) {
+        properties.put("pointsXs", new SimpleObjectProperty<>(XS));
+        properties.put("pointsYs", new SimpleObjectProperty<>(YS));
+        return (B) this;
+    }
+
     public final B pairedPoints(final Pair<Double,Double>... POINTS) {
         properties.put("pairedPointsArray", new SimpleObjectProperty<>(POINTS));
         return (B) this;
@@ -86,6 +124,11 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
         return (B) this;
     }
 
+    public final B pointSource(final PointSource SOURCE) {
+        properties.put("pointSource", new SimpleObjectProperty<>(SOURCE));
+        return (B) this;
+    }
+
     public final B name(final String NAME) {
         properties.put("name", new SimpleStringProperty(NAME));
         return (B) this;
@@ -146,6 +189,46 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
         return (B)this;
     }
 
+    public final B decimation(final Decimation DECIMATION) {
+        properties.put("decimation", new SimpleObjectProperty(DECIMATION));
+        return (B)this;
+    }
+
+    public final B xMonotonic(final boolean MONOTONIC) {
+        properties.put("xMonotonic", new SimpleBooleanProperty(MONOTONIC));
+        return (B)this;
+    }
+
+    public final B streaming(final boolean STREAMING) {
+        properties.put("streaming", new SimpleBooleanProperty(STREAMING));
+        return (B)this;
+    }
+
+    public final B capacity(final int CAPACITY) {
+        properties.put("capacity", new SimpleIntegerProperty(CAPACITY));
+        return (B)this;
+    }
+
+    public final B renderMode(final RenderMode MODE) {
+        properties.put("renderMode", new SimpleObjectProperty(MODE));
+        return (B)this;
+    }
+
+    public final B symbolThinning(final SymbolThinning THINNING) {
+        properties.put("symbolThinning", new SimpleObjectProperty(THINNING));
+        return (B)this;
+    }
+
+    public final B binShape(final BinShape SHAPE) {
+        properties.put("binShape", new SimpleObjectProperty(SHAPE));
+        return (B)this;
+    }
+
+    public final B binSize(final double SIZE) {
+        properties.put("binSize", new SimpleDoubleProperty(SIZE));
+        return (B)this;
+    }
+
     public final B shape(final Shape SHAPE) {
         properties.put("shape", new SimpleObjectProperty(SHAPE));
         return (B)this;
@@ -190,6 +273,23 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
         if (properties.keySet().contains("pointsList")) {
             CONTROL.setPoints(convertXYPairsToList(((ObjectProperty<List<Double[]>>) properties.get("pointsList")).get()));
         }
+        if (properties.keySet().contains("pointsXs")) {
+            CONTROL.setPoints(((ObjectProperty<double[]>) properties.get("pointsXs")).get(), ((ObjectProperty<double[]>) properties.get("pointsYs")).get());
+        }
+        if (properties.keySet().contains("xyPairsFile") || properties.keySet().contains("xyPairsReader")) {
+            DoubleConsumer progress = properties.keySet().contains("loadProgress") ? ((ObjectProperty<DoubleConsumer>) properties.get("loadProgress")).get() : null;
+            PointBuffer    buffer   = new PointBuffer();
+            try {
+                if (properties.keySet().contains("xyPairsFile")) {
+                    PointParser.parse(((ObjectProperty<Path>) properties.get("xyPairsFile")).get(), buffer, progress);
+                } else {
+                    PointParser.parse(((ObjectProperty<Reader>) properties.get("xyPairsReader")).get(), -1, buffer, progress);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            CONTROL.setPoints(buffer.getXs(), buffer.getYs(), 0, buffer.size());
+        }
         if (properties.keySet().contains("pairedPointsArray")) {
             CONTROL.setPoints(((ObjectProperty<Pair<Double,Double>[]>) properties.get("pairedPointsArray")).get());
         }
@@ -208,8 +308,8 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
 
         for (String key : properties.keySet()) {
             if ("xyPairs".equals(key)) {
-                List<Pair<Double,Double>> points = convertXYPairsToList(((StringProperty) properties.get(key)).get());
-                CONTROL.setPoints(points);
+                PointBuffer buffer = PointParser.parse(((StringProperty) properties.get(key)).get());
+                CONTROL.setPoints(buffer.getXs(), buffer.getYs(), 0, buffer.size());
             } else if ("name".equals(key)) {
                 CONTROL.setName(((StringProperty) properties.get(key)).get());
             } else if ("doFill".equals(key)) {
@@ -234,6 +334,22 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
                 CONTROL.setLineStyle(((ObjectProperty<LineStyle>) properties.get(key)).get());
             } else if("visible".equals(key)) {
                 CONTROL.setVisible(((BooleanProperty) properties.get(key)).get());
+            } else if ("decimation".equals(key)) {
+                CONTROL.setDecimation(((ObjectProperty<Decimation>) properties.get(key)).get());
+            } else if ("xMonotonic".equals(key)) {
+                CONTROL.setXMonotonic(((BooleanProperty) properties.get(key)).get());
+            } else if ("streaming".equals(key)) {
+                CONTROL.setStreaming(((BooleanProperty) properties.get(key)).get());
+            } else if ("capacity".equals(key)) {
+                CONTROL.setCapacity(((IntegerProperty) properties.get(key)).get());
+            } else if ("renderMode".equals(key)) {
+                CONTROL.setRenderMode(((ObjectProperty<RenderMode>) properties.get(key)).get());
+            } else if ("symbolThinning".equals(key)) {
+                CONTROL.setSymbolThinning(((ObjectProperty<SymbolThinning>) properties.get(key)).get());
+            } else if ("binShape".equals(key)) {
+                CONTROL.setBinShape(((ObjectProperty<BinShape>) properties.get(key)).get());
+            } else if ("binSize".equals(key)) {
+                CONTROL.setBinSize(((DoubleProperty) properties.get(key)).get());
             } else if ("shape".equals(key)) {
                 CONTROL.setShape(((ObjectProperty<Shape>) properties.get(key)).get());
             } else if ("image".equals(key)) {
@@ -246,6 +362,11 @@ public class OverlayBuilder<B extends OverlayBuilder<B>> {
                 CONTROL.setImageSize(((ObjectProperty<Dimension2D>) properties.get(key)).get());
             }
         }
+
+        // Has to be set after the points because the points of a point source can't be modified
+        if (properties.keySet().contains("pointSource")) {
+            CONTROL.setPointSource(((ObjectProperty<PointSource>) properties.get("pointSource")).get());
+        }
         return CONTROL;
     }
 }
\ No newline at end of file
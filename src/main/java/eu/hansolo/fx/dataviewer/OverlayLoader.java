@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer;
+
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import eu.hansolo.fx.dataviewer.tools.PointParser;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Parses x,y pairs for overlays on a background pool. Points that have been
+ * parsed are published to the overlay every PUBLISH_INTERVAL, the first time
+ * they replace the points of the overlay and afterwards only the points that
+ * have been parsed since are appended. For large files with one pair per line
+ * a coarse preview, sampled from windows spread over the whole file, is shown
+ * until the first parsed points are published.
+ * All methods have to be called on the FX application thread.
+ */
+class OverlayLoader {
+    private static final ExecutorService         LOADER             = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "DataViewer-OverlayLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final long                    PUBLISH_INTERVAL   = 250_000_000L;
+    private static final long                    PREVIEW_MIN_BYTES  = 4L * 1024 * 1024;
+    private static final int                     PREVIEW_WINDOWS    = 256;
+    private static final int                     PREVIEW_WINDOW     = 4096;
+    private        final Map<Overlay, Job>       jobs;
+
+
+    // ******************** Constructors **************************************
+    OverlayLoader() {
+        jobs = new HashMap<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    CompletableFuture<Overlay> load(final Overlay OVERLAY, final Path FILE) {
+        return load(OVERLAY, FILE, target -> PointParser.parse(FILE, target, null));
+    }
+    CompletableFuture<Overlay> load(final Overlay OVERLAY, final Reader READER) {
+        return load(OVERLAY, null, target -> {
+            try (Reader reader = READER) { PointParser.parse(reader, -1, target, null); }
+        });
+    }
+    private CompletableFuture<Overlay> load(final Overlay OVERLAY, final Path FILE, final Parse PARSE) {
+        if (OVERLAY.hasPointSource()) { throw new IllegalArgumentException("Points can't be loaded into an overlay with a point source"); }
+        cancel(OVERLAY);
+        Job job = new Job(OVERLAY);
+        jobs.put(OVERLAY, job);
+        // Cancelling the future stops the parser
+        job.future.whenComplete((overlay, throwable) -> {
+            if (!job.future.isCancelled()) { return; }
+            job.cancelled = true;
+            if (Platform.isFxApplicationThread()) {
+                jobs.remove(OVERLAY, job);
+            } else {
+                Platform.runLater(() -> jobs.remove(OVERLAY, job));
+            }
+        });
+        LOADER.submit(() -> run(job, FILE, PARSE));
+        return job.future;
+    }
+
+    boolean isLoading(final Overlay OVERLAY) { return jobs.containsKey(OVERLAY); }
+
+    void cancel(final Overlay OVERLAY) {
+        Job job = jobs.remove(OVERLAY);
+        if (null == job) { return; }
+        job.cancelled = true;
+        job.future.cancel(false);
+    }
+
+    private void run(final Job JOB, final Path FILE, final Parse PARSE) {
+        try {
+            if (null != FILE) { samplePreview(JOB, FILE); }
+            if (JOB.preview.size() > 0) { publishPreview(JOB); }
+
+            JOB.points.addChangeListener(new IntConsumer() {
+                @Override public void accept(final int FROM_INDEX) {
+                    if (JOB.cancelled) { throw new CancellationException(); }
+                    if (System.nanoTime() - JOB.lastPublish > PUBLISH_INTERVAL) { publish(JOB); }
+                }
+            });
+            PARSE.parse(JOB.points);
+
+            // The parser is done, so the remaining points can be handed over without copying them first
+            PointBuffer points      = JOB.points;
+            int         from        = JOB.noOfPublished;
+            boolean     replacement = !JOB.published;
+            Platform.runLater(() -> {
+                if (JOB.cancelled) { return; }
+                jobs.remove(JOB.overlay);
+                if (replacement) {
+                    JOB.overlay.setPoints(points.getXs(), points.getYs(), 0, points.size());
+                } else if (points.size() > from) {
+                    JOB.overlay.appendPoints(points.getXs(), points.getYs(), from, points.size() - from);
+                }
+                JOB.future.complete(JOB.overlay);
+            });
+        } catch (CancellationException e) {
+            // Overlay was removed or the future was cancelled
+        } catch (Exception e) {
+            Platform.runLater(() -> {
+                if (JOB.cancelled) { return; }
+                jobs.remove(JOB.overlay);
+                JOB.future.completeExceptionally(e);
+            });
+        }
+    }
+
+    private void publishPreview(final Job JOB) {
+        PointBuffer preview = JOB.preview;
+        Platform.runLater(() -> { if (!JOB.cancelled) { JOB.overlay.setPoints(preview.getXs(), preview.getYs(), 0, preview.size()); }});
+    }
+
+    // Replaces the points of the overlay (and the preview) with the parsed points once and appends the points parsed since the last call afterwards
+    private void publish(final Job JOB) {
+        int      from        = JOB.noOfPublished;
+        int      to          = JOB.points.size();
+        boolean  replacement = !JOB.published;
+        double[] xs          = new double[to - from];
+        double[] ys          = new double[to - from];
+        JOB.points.read(from, to, xs, ys, 0);
+        JOB.noOfPublished = to;
+        JOB.published     = true;
+        JOB.lastPublish   = System.nanoTime();
+        Platform.runLater(() -> {
+            if (JOB.cancelled) { return; }
+            if (replacement) {
+                JOB.overlay.setPoints(xs, ys);
+            } else {
+                JOB.overlay.appendPoints(xs, ys);
+            }
+        });
+    }
+
+    // Parses complete lines of evenly spread windows of the file, only used if the first line contains exactly one pair
+    private void samplePreview(final Job JOB, final Path FILE) throws IOException {
+        long fileSize = Files.size(FILE);
+        if (fileSize < PREVIEW_MIN_BYTES) { return; }
+        try (FileChannel channel = FileChannel.open(FILE, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(PREVIEW_WINDOW);
+            String     first  = readWindow(channel, buffer, 0);
+            int        eol    = first.indexOf('\n');
+            if (eol < 0) { return; }
+            try {
+                if (1 != PointParser.parse(first.substring(0, eol)).size()) { return; }
+            } catch (IllegalArgumentException e) {
+                return;
+            }
+
+            long step = fileSize / PREVIEW_WINDOWS;
+            for (int i = 0 ; i < PREVIEW_WINDOWS ; i++) {
+                if (JOB.cancelled) { throw new CancellationException(); }
+                long   position = i * step;
+                String window   = readWindow(channel, buffer, position);
+                int    from     = 0 == i ? 0 : window.indexOf('\n') + 1;
+                int    to       = window.lastIndexOf('\n');
+                if (from <= 0 && 0 != i || to <= from) { continue; }
+                try {
+                    PointBuffer samples = PointParser.parse(window.substring(from, to));
+                    JOB.preview.addAll(samples, 0, samples.size());
+                } catch (IllegalArgumentException e) {
+                    // Skip windows that can't be parsed, e.g. because of a header
+                }
+            }
+        }
+    }
+
+    private static String readWindow(final FileChannel CHANNEL, final ByteBuffer BUFFER, final long POSITION) throws IOException {
+        BUFFER.clear();
+        while (BUFFER.hasRemaining() && CHANNEL.read(BUFFER, POSITION + BUFFER.position()) > 0) {}
+        BUFFER.flip();
+        return StandardCharsets.ISO_8859_1.decode(BUFFER).toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private interface Parse {
+        void parse(PointBuffer TARGET) throws IOException;
+    }
+
+    private static class Job {
+        final    Overlay                    overlay;
+        final    CompletableFuture<Overlay> future;
+        final    PointBuffer                points;
+        final    PointBuffer                preview;
+        volatile boolean                    cancelled;
+        long                                lastPublish;
+        int                                 noOfPublished;
+        boolean                             published;
+
+        Job(final Overlay OVERLAY) {
+            overlay         = OVERLAY;
+            future          = new CompletableFuture<>();
+            points          = new PointBuffer();
+            preview         = new PointBuffer();
+            lastPublish     = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer;
+
+import eu.hansolo.fx.dataviewer.tools.PointBuffer;
+import eu.hansolo.fx.dataviewer.tools.PointPredicate;
+import javafx.collections.ModifiableObservableListBase;
+import javafx.util.Pair;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * ObservableList adapter that exposes a PointBuffer as a list of
+ * Pair<Double,Double>. Pairs are only created on access.
+ */
+class PointList extends ModifiableObservableListBase<Pair<Double,Double>> {
+    private final PointBuffer buffer;
+
+
+    // ******************** Constructors **************************************
+    PointList(final PointBuffer BUFFER) {
+        buffer = BUFFER;
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public Pair<Double,Double> get(final int INDEX) {
+        if (INDEX < 0 || INDEX >= buffer.size()) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + buffer.size()); }
+        return new Pair<>(buffer.getX(INDEX), buffer.getY(INDEX));
+    }
+
+    @Override public int size() { return buffer.size(); }
+
+    @Override protected void doAdd(final int INDEX, final Pair<Double,Double> POINT) {
+        if (buffer.size() == INDEX) {
+            buffer.add(POINT.getKey(), POINT.getValue());
+        } else {
+            buffer.add(INDEX, POINT.getKey(), POINT.getValue());
+        }
+    }
+
+    @Override protected Pair<Double,Double> doSet(final int INDEX, final Pair<Double,Double> POINT) {
+        Pair<Double,Double> old = get(INDEX);
+        buffer.set(INDEX, POINT.getKey(), POINT.getValue());
+        return old;
+    }
+
+    @Override protected Pair<Double,Double> doRemove(final int INDEX) {
+        Pair<Double,Double> old = get(INDEX);
+        buffer.remove(INDEX);
+        return old;
+    }
+
+    void setAll(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        beginChange();
+        if (buffer.size() > 0) { nextRemove(0, removedPoints(0, buffer.size())); }
+        buffer.setAll(XS, YS, OFFSET, LENGTH);
+        if (LENGTH > 0) { nextAdd(0, LENGTH); }
+        endChange();
+    }
+
+    void addAll(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        int from = buffer.size();
+        beginChange();
+        buffer.addAll(XS, YS, OFFSET, LENGTH);
+        if (LENGTH > 0) { nextAdd(from, from + LENGTH); }
+        endChange();
+    }
+
+    @Override protected void removeRange(final int FROM, final int TO) {
+        if (FROM < 0 || FROM > TO || TO > buffer.size()) { throw new IndexOutOfBoundsException("From: " + FROM + ", To: " + TO + ", Size: " + buffer.size()); }
+        if (FROM == TO) { return; }
+        beginChange();
+        nextRemove(FROM, removedPoints(FROM, TO));
+        buffer.removeRange(FROM, TO);
+        endChange();
+    }
+
+    int removeIf(final PointPredicate PREDICATE) {
+        if (!hasListeners()) { return buffer.removeIf(PREDICATE); }
+        // Report every run of removed points as one change with the index it had after the previous removals
+        int    size    = buffer.size();
+        BitSet removed = new BitSet(size);
+        for (int i = 0 ; i < size ; i++) { if (PREDICATE.test(buffer.getX(i), buffer.getY(i))) { removed.set(i); }}
+        if (removed.isEmpty()) { return 0; }
+        beginChange();
+        int noOfRemoved = 0;
+        for (int from = removed.nextSetBit(0) ; from >= 0 ; from = removed.nextSetBit(from)) {
+            int to = removed.nextClearBit(from);
+            nextRemove(from - noOfRemoved, removedPoints(from, to));
+            noOfRemoved += to - from;
+            from = to;
+        }
+        int[] index = { 0 };
+        buffer.removeIf((x, y) -> removed.get(index[0]++));
+        endChange();
+        return noOfRemoved;
+    }
+
+    void removeFirst(final int COUNT) {
+        if (COUNT <= 0) { return; }
+        beginChange();
+        nextRemove(0, removedPoints(0, COUNT));
+        buffer.removeFirst(COUNT);
+        endChange();
+    }
+
+    // Only materialize the removed pairs if somebody is listening
+    private List<Pair<Double,Double>> removedPoints(final int FROM, final int TO) {
+        if (!hasListeners()) { return Collections.emptyList(); }
+        List<Pair<Double,Double>> removed = new ArrayList<>(TO - FROM);
+        for (int i = FROM ; i < TO ; i++) { removed.add(new Pair<>(buffer.getX(i), buffer.getY(i))); }
+        return removed;
+    }
+}
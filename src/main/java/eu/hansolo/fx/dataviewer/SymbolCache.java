@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer;
+
+import eu.hansolo.fx.dataviewer.Overlay.Symbol;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Cache of pre rendered symbol images for one symbol size. Every combination
+ * of symbol and color will be rendered once into a small image that is then
+ * stamped with drawImage() instead of drawing the symbol primitives per point.
+ * The images are rendered with twice the resolution to stay sharp on hi-dpi screens.
+ */
+class SymbolCache {
+    private static final double                         SCALE = 2;
+    private        final Map<Symbol, Map<Color, Image>> images;
+    private        final SnapshotParameters             snapshotParameters;
+    private              double                         size;
+    private              double                         spriteSize;
+
+
+    // ******************** Constructors **************************************
+    SymbolCache() {
+        images             = new EnumMap<>(Symbol.class);
+        snapshotParameters = new SnapshotParameters();
+        snapshotParameters.setFill(Color.TRANSPARENT);
+        snapshotParameters.setTransform(Transform.scale(SCALE, SCALE));
+        size               = 0;
+        spriteSize         = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    double getSize() { return size; }
+
+    /**
+     * Sets the symbol size, all cached images will be dropped if the size changed.
+     */
+    void setSize(final double SIZE) {
+        if (SIZE == size) { return; }
+        size       = SIZE;
+        // Filled stars reach out to 0.75 * size from the center
+        spriteSize = Math.ceil(SIZE * 1.5) + 2;
+        clear();
+    }
+
+    void clear() { images.clear(); }
+
+    /**
+     * Stamps the image of the given symbol and color centered at X, Y.
+     */
+    void draw(final GraphicsContext CTX, final double X, final double Y, final Symbol SYMBOL, final Color COLOR) {
+        Image image = get(SYMBOL, COLOR);
+        if (null == image) { return; }
+        double halfSpriteSize = spriteSize * 0.5;
+        CTX.drawImage(image, X - halfSpriteSize, Y - halfSpriteSize, spriteSize, spriteSize);
+    }
+
+    /**
+     * Returns the pre rendered image of the given symbol and color, null for Symbol.NONE.
+     * Must be called on the FX application thread.
+     */
+    Image get(final Symbol SYMBOL, final Color COLOR) {
+        if (Symbol.NONE == SYMBOL || size <= 0) { return null; }
+        Map<Color, Image> imagesOfSymbol = images.computeIfAbsent(SYMBOL, symbol -> new HashMap<>());
+        Image             image          = imagesOfSymbol.get(COLOR);
+        if (null == image) {
+            Canvas          canvas = new Canvas(spriteSize, spriteSize);
+            GraphicsContext ctx    = canvas.getGraphicsContext2D();
+            ctx.setLineWidth(1);
+            ctx.setStroke(COLOR);
+            ctx.setFill(COLOR);
+            drawSymbol(ctx, spriteSize * 0.5, spriteSize * 0.5, SYMBOL, size);
+            image = canvas.snapshot(snapshotParameters, null);
+            imagesOfSymbol.put(COLOR, image);
+        }
+        return image;
+    }
+
+    private static void drawSymbol(final GraphicsContext CTX, final double X, final double Y, final Symbol SYMBOL, final double SYMBOL_SIZE) {
+        double halfSymbolSize = SYMBOL_SIZE * 0.5;
+        switch(SYMBOL) {
+            case BOX:
+                CTX.strokeRect(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
+                break;
+            case BOX_FILLED:
+                CTX.fillRect(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
+                break;
+            case CIRCLE:
+                CTX.strokeOval(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
+                break;
+            case CIRCLE_FILLED:
+                CTX.fillOval(X - halfSymbolSize, Y - halfSymbolSize, SYMBOL_SIZE, SYMBOL_SIZE);
+                break;
+            case CROSS:
+                CTX.strokeLine(X - halfSymbolSize, Y - halfSymbolSize, X + halfSymbolSize, Y + halfSymbolSize);
+                CTX.strokeLine(X - halfSymbolSize, Y + halfSymbolSize, X + halfSymbolSize, Y - halfSymbolSize);
+                break;
+            case PLUS:
+                CTX.strokeLine(X - halfSymbolSize, Y, X + halfSymbolSize, Y);
+                CTX.strokeLine(X, Y - halfSymbolSize, X, Y + halfSymbolSize);
+                break;
+            case STAR:
+                drawStar(CTX, X, Y,5, halfSymbolSize,halfSymbolSize * 0.4);
+                CTX.stroke();
+                break;
+            case STAR_FILLED:
+                drawStar(CTX, X, Y,5, SYMBOL_SIZE * 0.75,SYMBOL_SIZE * 0.3);
+                CTX.fill();
+                break;
+            case TRIANGLE_UP:
+                CTX.strokeLine(X, Y - halfSymbolSize, X + halfSymbolSize, Y + halfSymbolSize);
+                CTX.strokeLine(X + halfSymbolSize, Y + halfSymbolSize, X - halfSymbolSize, Y + halfSymbolSize);
+                CTX.strokeLine(X - halfSymbolSize, Y + halfSymbolSize, X, Y - halfSymbolSize);
+                break;
+            case TRIANGLE_UP_FILLED:
+                CTX.beginPath();
+                CTX.moveTo(X, Y - halfSymbolSize);
+                CTX.lineTo(X + halfSymbolSize, Y + halfSymbolSize);
+                CTX.lineTo(X - halfSymbolSize, Y + halfSymbolSize);
+                CTX.lineTo(X, Y - halfSymbolSize);
+                CTX.closePath();
+                CTX.fill();
+                break;
+            case TRIANGLE_DOWN:
+                CTX.strokeLine(X, Y + halfSymbolSize, X - halfSymbolSize, Y - halfSymbolSize);
+                CTX.strokeLine(X - halfSymbolSize, Y - halfSymbolSize, X + halfSymbolSize, Y - halfSymbolSize);
+                CTX.strokeLine(X + halfSymbolSize, Y - halfSymbolSize, X, Y + halfSymbolSize);
+                break;
+            case TRIANGLE_DOWN_FILLED:
+                CTX.beginPath();
+                CTX.moveTo(X, Y + halfSymbolSize);
+                CTX.lineTo(X - halfSymbolSize, Y - halfSymbolSize);
+                CTX.lineTo(X + halfSymbolSize, Y - halfSymbolSize);
+                CTX.lineTo(X , Y + halfSymbolSize);
+                CTX.closePath();
+                CTX.fill();
+                break;
+            case NONE:
+            default  :
+                break;
+        }
+    }
+
+    private static void drawStar(final GraphicsContext CTX, final double CENTER_X, final double CENTER_Y, final int SPIKES, final double OUTER_RADIUS, final double INNER_RADIUS) {
+        double rot = Math.PI / 2 * 3;
+        double x;
+        double y;
+        double step=Math.PI/SPIKES;
+
+        CTX.beginPath();
+        CTX.moveTo(CENTER_X,CENTER_Y - OUTER_RADIUS);
+        for(int i = 0 ; i < SPIKES ; i++){
+            x = CENTER_X + Math.cos(rot) * OUTER_RADIUS;
+            y = CENTER_Y + Math.sin(rot) * OUTER_RADIUS;
+            CTX.lineTo(x,y);
+            rot += step;
+
+            x = CENTER_X + Math.cos(rot) * INNER_RADIUS;
+            y = CENTER_Y + Math.sin(rot) * INNER_RADIUS;
+            CTX.lineTo(x,y);
+            rot += step;
+        }
+        CTX.lineTo(CENTER_X,CENTER_Y - OUTER_RADIUS);
+        CTX.closePath();
+    }
+}
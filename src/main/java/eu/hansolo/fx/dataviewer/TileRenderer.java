@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer;
+
+import eu.hansolo.fx.dataviewer.tiles.TileCache;
+import eu.hansolo.fx.dataviewer.tiles.TileSource;
+import eu.hansolo.fx.dataviewer.tools.CtxBounds;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+
+/**
+ * Draws the tiles of a TileSource that intersect the image view port into a
+ * canvas. The pyramid level is chosen so that one tile pixel is at least one
+ * screen pixel. Missing tiles are loaded on a background pool and drawn with
+ * the best coarser tile from the cache until they arrive, loads of tiles that
+ * left the view port will be cancelled. Tiles that are missing or failed to
+ * load are remembered, so they are not requested again on every redraw.
+ * All methods have to be called on the FX application thread.
+ */
+class TileRenderer {
+    private static final ExecutorService       LOADER = Executors.newFixedThreadPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+        Thread thread = new Thread(runnable, "DataViewer-TileLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int                   MAX_NO_OF_MISSING = 4_096;
+    private        final Canvas                canvas;
+    private        final Runnable              onTileLoaded;
+    private        final TileCache             cache;
+    private        final Map<Long, Future<?>>  pending;
+    private        final LinkedHashSet<Long>   missing;
+    private              TileSource            source;
+
+
+    // ******************** Constructors **************************************
+    TileRenderer(final Canvas CANVAS, final Runnable ON_TILE_LOADED) {
+        canvas       = CANVAS;
+        onTileLoaded = ON_TILE_LOADED;
+        cache        = new TileCache();
+        pending      = new HashMap<>();
+        missing      = new LinkedHashSet<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    TileSource getSource() { return source; }
+    void setSource(final TileSource SOURCE) {
+        cancelAll();
+        cache.clear();
+        missing.clear();
+        source = SOURCE;
+    }
+
+    /**
+     * Draws the part of the image that is visible in VIEW_PORT (in pixels of the full resolution image).
+     */
+    void draw(final CtxBounds VIEW_PORT) {
+        GraphicsContext ctx          = canvas.getGraphicsContext2D();
+        double          canvasWidth  = canvas.getWidth();
+        double          canvasHeight = canvas.getHeight();
+        ctx.clearRect(0, 0, canvasWidth, canvasHeight);
+        if (null == source || VIEW_PORT.getWidth() <= 0 || VIEW_PORT.getHeight() <= 0 || canvasWidth <= 0 || canvasHeight <= 0) { return; }
+
+        double scaleX         = canvasWidth / VIEW_PORT.getWidth();
+        double scaleY         = canvasHeight / VIEW_PORT.getHeight();
+        double imagePerScreen = Math.min(VIEW_PORT.getWidth() / canvasWidth, VIEW_PORT.getHeight() / canvasHeight);
+        int    level          = imagePerScreen <= 1 ? 0 : Math.min(source.getNoOfLevels() - 1, (int) (Math.log(imagePerScreen) / Math.log(2)));
+        int    tileSize       = source.getTileSize();
+        double levelTileSize  = (double) tileSize * (1 << level);
+        int    columns        = (int) Math.ceil(source.getWidth() / levelTileSize);
+        int    rows           = (int) Math.ceil(source.getHeight() / levelTileSize);
+        int    firstColumn    = Math.max(0, (int) Math.floor(VIEW_PORT.getMinX() / levelTileSize));
+        int    lastColumn     = Math.min(columns - 1, (int) Math.floor(VIEW_PORT.getMaxX() / levelTileSize));
+        int    firstRow       = Math.max(0, (int) Math.floor(VIEW_PORT.getMinY() / levelTileSize));
+        int    lastRow        = Math.min(rows - 1, (int) Math.floor(VIEW_PORT.getMaxY() / levelTileSize));
+
+        Set<Long> visibleTiles = new HashSet<>();
+        for (int row = firstRow ; row <= lastRow ; row++) {
+            for (int column = firstColumn ; column <= lastColumn ; column++) {
+                long   key     = TileCache.key(level, column, row);
+                double tileX   = column * levelTileSize;
+                double tileY   = row * levelTileSize;
+                double tileW   = Math.min(levelTileSize, source.getWidth() - tileX);
+                double tileH   = Math.min(levelTileSize, source.getHeight() - tileY);
+                double screenX = (tileX - VIEW_PORT.getMinX()) * scaleX;
+                double screenY = (tileY - VIEW_PORT.getMinY()) * scaleY;
+                double screenW = tileW * scaleX;
+                double screenH = tileH * scaleY;
+                visibleTiles.add(key);
+
+                Image tile = cache.get(key);
+                if (null == tile) {
+                    if (!missing.contains(key)) { load(level, column, row, key); }
+                    drawFallback(ctx, level, tileX, tileY, tileW, tileH, screenX, screenY, screenW, screenH);
+                } else {
+                    ctx.drawImage(tile, screenX, screenY, screenW, screenH);
+                }
+            }
+        }
+
+        // Cancel loading tiles that are not visible anymore
+        for (Iterator<Map.Entry<Long, Future<?>>> iterator = pending.entrySet().iterator() ; iterator.hasNext() ; ) {
+            Map.Entry<Long, Future<?>> entry = iterator.next();
+            if (visibleTiles.contains(entry.getKey())) { continue; }
+            entry.getValue().cancel(false);
+            iterator.remove();
+        }
+    }
+
+    void cancelAll() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+
+    // Draws the region of the first cached tile of a coarser level that covers the given tile
+    private void drawFallback(final GraphicsContext CTX, final int LEVEL, final double TILE_X, final double TILE_Y, final double TILE_W, final double TILE_H,
+                              final double SCREEN_X, final double SCREEN_Y, final double SCREEN_W, final double SCREEN_H) {
+        int tileSize = source.getTileSize();
+        for (int level = LEVEL + 1 ; level < source.getNoOfLevels() ; level++) {
+            double levelTileSize = (double) tileSize * (1 << level);
+            int    column        = (int) (TILE_X / levelTileSize);
+            int    row           = (int) (TILE_Y / levelTileSize);
+            Image  tile          = cache.get(TileCache.key(level, column, row));
+            if (null == tile) { continue; }
+            double scale = 1 << level;
+            CTX.drawImage(tile, (TILE_X - column * levelTileSize) / scale, (TILE_Y - row * levelTileSize) / scale, TILE_W / scale, TILE_H / scale,
+                          SCREEN_X, SCREEN_Y, SCREEN_W, SCREEN_H);
+            return;
+        }
+    }
+
+    private void load(final int LEVEL, final int COLUMN, final int ROW, final long KEY) {
+        if (pending.containsKey(KEY)) { return; }
+        final TileSource SOURCE = source;
+        FutureTask<Image> task = new FutureTask<Image>(() -> SOURCE.loadTile(LEVEL, COLUMN, ROW)) {
+            @Override protected void done() { Platform.runLater(() -> loaded(SOURCE, KEY, this)); }
+        };
+        pending.put(KEY, task);
+        LOADER.execute(task);
+    }
+
+    // Only the task that is still pending for the key may complete it, cancelled or replaced tasks are ignored
+    private void loaded(final TileSource SOURCE, final long KEY, final FutureTask<Image> TASK) {
+        if (SOURCE != source || TASK.isCancelled() || !pending.remove(KEY, TASK)) { return; }
+        Image tile;
+        try {
+            tile = TASK.get();
+        } catch (InterruptedException | ExecutionException e) {
+            tile = null;
+        }
+        if (null == tile) {
+            addMissing(KEY);
+            return;
+        }
+        cache.put(KEY, tile);
+        onTileLoaded.run();
+    }
+
+    private void addMissing(final long KEY) {
+        missing.add(KEY);
+        if (missing.size() > MAX_NO_OF_MISSING) {
+            Iterator<Long> iterator = missing.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -20,9 +20,11 @@ import java.util.EventObject;
 
 
 public class OverlayEvent extends EventObject{
-    public enum Type { UPDATE }
+    public enum Type { UPDATE, APPEND, VISIBILITY }
 
     private Type type;
+    private int  fromIndex;
+    private int  noOfEvicted;
 
 
     // ******************** Constructors **************************************
@@ -30,11 +32,27 @@ public class OverlayEvent extends EventObject{
         this(SRC, Type.UPDATE);
     }
     public OverlayEvent(final Object SRC, final Type TYPE) {
+        this(SRC, TYPE, 0, 0);
+    }
+    public OverlayEvent(final Object SRC, final Type TYPE, final int FROM_INDEX, final int NO_OF_EVICTED) {
         super(SRC);
-        type = TYPE;
+        type        = TYPE;
+        fromIndex   = FROM_INDEX;
+        noOfEvicted = NO_OF_EVICTED;
     }
 
 
     // ******************** Methods *******************************************
     public Type getType() { return type; }
+
+    /**
+     * Returns the index of the first appended point for APPEND events.
+     */
+    public int getFromIndex() { return fromIndex; }
+
+    /**
+     * Returns the number of points that have been evicted from the front
+     * of a capacity limited overlay for APPEND events.
+     */
+    public int getNoOfEvicted() { return noOfEvicted; }
 }
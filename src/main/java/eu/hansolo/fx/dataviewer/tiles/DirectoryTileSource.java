@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tiles;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Reads pre rendered tiles from a directory with the layout
+ * DIRECTORY/LEVEL/COLUMN_ROW.EXTENSION, e.g. tiles/0/12_7.png
+ */
+public class DirectoryTileSource implements TileSource {
+    private final Path   directory;
+    private final double width;
+    private final double height;
+    private final int    tileSize;
+    private final int    noOfLevels;
+    private final String extension;
+
+
+    // ******************** Constructors **************************************
+    public DirectoryTileSource(final Path DIRECTORY, final double WIDTH, final double HEIGHT, final int TILE_SIZE) {
+        this(DIRECTORY, WIDTH, HEIGHT, TILE_SIZE, TileSource.noOfLevels(WIDTH, HEIGHT, TILE_SIZE), "png");
+    }
+    public DirectoryTileSource(final Path DIRECTORY, final double WIDTH, final double HEIGHT, final int TILE_SIZE, final int NO_OF_LEVELS, final String EXTENSION) {
+        if (null == DIRECTORY || !Files.isDirectory(DIRECTORY)) { throw new IllegalArgumentException("Tile directory does not exist: " + DIRECTORY); }
+        if (TILE_SIZE <= 0) { throw new IllegalArgumentException("Tile size must be > 0"); }
+        directory  = DIRECTORY;
+        width      = WIDTH;
+        height     = HEIGHT;
+        tileSize   = TILE_SIZE;
+        noOfLevels = Math.max(1, NO_OF_LEVELS);
+        extension  = EXTENSION;
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public double getWidth() { return width; }
+
+    @Override public double getHeight() { return height; }
+
+    @Override public int getTileSize() { return tileSize; }
+
+    @Override public int getNoOfLevels() { return noOfLevels; }
+
+    @Override public Image loadTile(final int LEVEL, final int COLUMN, final int ROW) throws IOException {
+        Path file = directory.resolve(Integer.toString(LEVEL)).resolve(COLUMN + "_" + ROW + "." + extension);
+        if (!Files.exists(file)) { return null; }
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            Image tile = new Image(inputStream);
+            if (tile.isError()) { throw new IOException("Error reading tile " + file, tile.getException()); }
+            return tile;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tiles;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+
+/**
+ * Splits a large image file (e.g. TIFF or PNG, depending on the available
+ * ImageIO readers) into tiles on first use. Every tile is decoded from its
+ * region of the file with a subsampling that matches the pyramid level, so
+ * the whole image never has to be on the heap. Decoding a region of a PNG or
+ * a TIFF with strips has to inflate all rows above it, so every generated tile
+ * is stored in the cache directory in the layout of the DirectoryTileSource
+ * and is only decoded once. Without a given cache directory a temporary one
+ * is used that will be deleted by dispose().
+ */
+public class ImageTileSource implements TileSource {
+    public  static final int              DEFAULT_TILE_SIZE = 256;
+    private        final Path             file;
+    private        final Path             cacheDirectory;
+    private        final boolean          temporaryCache;
+    private        final int              tileSize;
+    private        final ImageInputStream inputStream;
+    private        final ImageReader      reader;
+    private        final double           width;
+    private        final double           height;
+
+
+    // ******************** Constructors **************************************
+    public ImageTileSource(final Path FILE) throws IOException {
+        this(FILE, DEFAULT_TILE_SIZE, Files.createTempDirectory("dataviewer-tiles"), true);
+    }
+    public ImageTileSource(final Path FILE, final int TILE_SIZE, final Path CACHE_DIRECTORY) throws IOException {
+        this(FILE, TILE_SIZE, CACHE_DIRECTORY, false);
+    }
+    private ImageTileSource(final Path FILE, final int TILE_SIZE, final Path CACHE_DIRECTORY, final boolean TEMPORARY_CACHE) throws IOException {
+        if (TILE_SIZE <= 0)          { throw new IllegalArgumentException("Tile size must be > 0"); }
+        if (null == CACHE_DIRECTORY) { throw new IllegalArgumentException("Cache directory must not be null"); }
+        file           = FILE;
+        cacheDirectory = CACHE_DIRECTORY;
+        temporaryCache = TEMPORARY_CACHE;
+        tileSize       = TILE_SIZE;
+        inputStream    = ImageIO.createImageInputStream(FILE.toFile());
+        if (null == inputStream) { throw new IOException("Can't open " + FILE); }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(inputStream);
+        if (!readers.hasNext()) {
+            inputStream.close();
+            throw new IOException("No ImageIO reader available for " + FILE);
+        }
+        reader = readers.next();
+        reader.setInput(inputStream, true, true);
+        width  = reader.getWidth(0);
+        height = reader.getHeight(0);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public double getWidth() { return width; }
+
+    @Override public double getHeight() { return height; }
+
+    @Override public int getTileSize() { return tileSize; }
+
+    @Override public Image loadTile(final int LEVEL, final int COLUMN, final int ROW) throws IOException {
+        Path cachedTile = cacheDirectory.resolve(Integer.toString(LEVEL)).resolve(COLUMN + "_" + ROW + ".png");
+        if (Files.exists(cachedTile)) {
+            try (InputStream cacheStream = Files.newInputStream(cachedTile)) {
+                Image tile = new Image(cacheStream);
+                if (!tile.isError()) { return tile; }
+            }
+        }
+
+        // Region of the tile in full resolution pixels
+        int scale  = 1 << LEVEL;
+        int x      = COLUMN * tileSize * scale;
+        int y      = ROW * tileSize * scale;
+        int w      = Math.min(tileSize * scale, (int) width - x);
+        int h      = Math.min(tileSize * scale, (int) height - y);
+        if (w <= 0 || h <= 0) { return null; }
+
+        BufferedImage bufferedImage;
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(x, y, w, h));
+        param.setSourceSubsampling(scale, scale, 0, 0);
+        // ImageReaders are not thread safe
+        synchronized (reader) {
+            bufferedImage = reader.read(0, param);
+        }
+
+        Files.createDirectories(cachedTile.getParent());
+        ImageIO.write(bufferedImage, "png", cachedTile.toFile());
+        return toImage(bufferedImage);
+    }
+
+    /**
+     * Releases the ImageReader, closes the file and deletes a temporary cache directory.
+     */
+    public void dispose() {
+        synchronized (reader) {
+            reader.dispose();
+            try { inputStream.close(); } catch (IOException e) { }
+        }
+        if (temporaryCache) {
+            try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) { }
+        }
+    }
+
+    public Path getFile() { return file; }
+
+    public Path getCacheDirectory() { return cacheDirectory; }
+
+    private static Image toImage(final BufferedImage BUFFERED_IMAGE) {
+        int   w      = BUFFERED_IMAGE.getWidth();
+        int   h      = BUFFERED_IMAGE.getHeight();
+        int[] pixels = BUFFERED_IMAGE.getRGB(0, 0, w, h, null, 0, w);
+        WritableImage image = new WritableImage(w, h);
+        image.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+        return image;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tiles;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Least recently used cache of decoded tiles that is bounded by the number of
+ * bytes the tiles need on the heap (4 bytes per pixel). Tiles are addressed by
+ * a key that combines level, column and row (see key()).
+ * The cache is not thread safe and is meant to be used on the FX thread.
+ */
+public class TileCache {
+    public  static final long                       DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+    private        final LinkedHashMap<Long, Image> tiles;
+    private        final long                       maxBytes;
+    private              long                       bytes;
+
+
+    // ******************** Constructors **************************************
+    public TileCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+    public TileCache(final long MAX_BYTES) {
+        tiles    = new LinkedHashMap<>(64, 0.75f, true);
+        maxBytes = Math.max(0, MAX_BYTES);
+        bytes    = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static long key(final int LEVEL, final int COLUMN, final int ROW) {
+        return ((long) LEVEL << 56) | ((long) COLUMN << 28) | ROW;
+    }
+
+    public Image get(final long KEY) { return tiles.get(KEY); }
+
+    public boolean contains(final long KEY) { return tiles.containsKey(KEY); }
+
+    public void put(final long KEY, final Image TILE) {
+        if (null == TILE) { return; }
+        Image oldTile = tiles.put(KEY, TILE);
+        if (null != oldTile) { bytes -= sizeOf(oldTile); }
+        bytes += sizeOf(TILE);
+        evict();
+    }
+
+    public void clear() {
+        tiles.clear();
+        bytes = 0;
+    }
+
+    public int size() { return tiles.size(); }
+
+    public long getBytes() { return bytes; }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    private void evict() {
+        Iterator<Map.Entry<Long, Image>> iterator = tiles.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            bytes -= sizeOf(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long sizeOf(final Image TILE) { return (long) TILE.getWidth() * (long) TILE.getHeight() * 4L; }
+}
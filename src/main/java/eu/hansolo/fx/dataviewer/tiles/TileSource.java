@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tiles;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+
+
+/**
+ * Source of a large image that is split into square tiles on a multi resolution
+ * pyramid. Level 0 is the full resolution, every following level halves the
+ * resolution of the previous one. Tiles at the right and bottom border might
+ * be smaller than the tile size.
+ */
+public interface TileSource {
+
+    /**
+     * @return the width of the image in pixels at full resolution
+     */
+    double getWidth();
+
+    /**
+     * @return the height of the image in pixels at full resolution
+     */
+    double getHeight();
+
+    /**
+     * @return the width and height of a tile in pixels
+     */
+    int getTileSize();
+
+    /**
+     * @return the number of levels of the pyramid
+     */
+    default int getNoOfLevels() { return TileSource.noOfLevels(getWidth(), getHeight(), getTileSize()); }
+
+    /**
+     * Loads the tile at the given pyramid level. This will be called on a background
+     * thread, implementations have to be thread safe.
+     * @return the tile or null if there is no tile at the given position
+     * @throws IOException if the tile could not be read
+     */
+    Image loadTile(int LEVEL, int COLUMN, int ROW) throws IOException;
+
+    /**
+     * Returns the number of levels that are needed until the whole image fits into one tile.
+     */
+    static int noOfLevels(final double WIDTH, final double HEIGHT, final int TILE_SIZE) {
+        int    levels = 1;
+        double size   = Math.max(WIDTH, HEIGHT);
+        while (size > TILE_SIZE) {
+            size /= 2;
+            levels++;
+        }
+        return levels;
+    }
+}
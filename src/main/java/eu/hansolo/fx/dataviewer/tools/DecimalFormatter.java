@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+
+/**
+ * Formats doubles with a fixed number of decimals like String.format(LOCALE, "%.nf", VALUE)
+ * but writes the digits into a reused char array instead of parsing a format string
+ * per call. Values that are too large, not finite or too close to a rounding boundary
+ * to be rounded exactly with double arithmetic fall back to String.format().
+ * Not thread safe.
+ */
+public class DecimalFormatter {
+    public  static final int     MAX_DECIMALS   = 12;
+    private static final double  MAX_SCALED     = 1e15;
+    private static final double  HALF_TOLERANCE = 1e-6;
+    private static final long[]  POWERS_OF_TEN  = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+                                                    1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L };
+    private        final char[]  chars;
+    private              int     decimals;
+    private              Locale  locale;
+    private              char    decimalSeparator;
+    private              boolean asciiDigits;
+    private              String  formatString;
+
+
+    // ******************** Constructors **************************************
+    public DecimalFormatter(final int DECIMALS, final Locale LOCALE) {
+        chars = new char[32];
+        setDecimals(DECIMALS);
+        setLocale(LOCALE);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getDecimals() { return decimals; }
+    public void setDecimals(final int DECIMALS) {
+        decimals     = Helper.clamp(0, MAX_DECIMALS, DECIMALS);
+        formatString = new StringBuilder("%.").append(decimals).append("f").toString();
+    }
+
+    public Locale getLocale() { return locale; }
+    public void setLocale(final Locale LOCALE) {
+        if (LOCALE.equals(locale)) { return; }
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(LOCALE);
+        locale           = LOCALE;
+        decimalSeparator = symbols.getDecimalSeparator();
+        asciiDigits      = '0' == symbols.getZeroDigit();
+    }
+
+    public String format(final double VALUE) {
+        int length = write(VALUE);
+        return length < 0 ? String.format(locale, formatString, VALUE) : new String(chars, chars.length - length, length);
+    }
+
+    public StringBuilder append(final StringBuilder BUILDER, final double VALUE) {
+        int length = write(VALUE);
+        return length < 0 ? BUILDER.append(String.format(locale, formatString, VALUE)) : BUILDER.append(chars, chars.length - length, length);
+    }
+
+    // Writes the formatted value right aligned into chars and returns its length or -1 if the fallback has to be used
+    private int write(final double VALUE) {
+        if (!asciiDigits || Double.isNaN(VALUE) || Double.isInfinite(VALUE)) { return -1; }
+        boolean negative = VALUE < 0 || (0.0 == VALUE && 1 / VALUE < 0);
+        double  scaled   = Math.abs(VALUE) * POWERS_OF_TEN[decimals];
+        if (scaled >= MAX_SCALED) { return -1; }
+        // The scaled value is only exact up to a few ulps
+        double  fraction = scaled - Math.floor(scaled);
+        if (Math.abs(fraction - 0.5) < Math.max(HALF_TOLERANCE, 8 * Math.ulp(scaled))) { return -1; }
+
+        long rounded  = (long) Math.floor(scaled + 0.5);
+        int  position = chars.length;
+        for (int i = 0 ; i < decimals ; i++) {
+            chars[--position] = (char) ('0' + rounded % 10);
+            rounded /= 10;
+        }
+        if (decimals > 0) { chars[--position] = decimalSeparator; }
+        do {
+            chars[--position] = (char) ('0' + rounded % 10);
+            rounded /= 10;
+        } while (rounded > 0);
+        if (negative) { chars[--position] = '-'; }
+        return chars.length - position;
+    }
+}
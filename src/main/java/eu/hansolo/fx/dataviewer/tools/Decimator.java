@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+
+/**
+ * Render time reduction of x sorted point series.
+ * M4 keeps the first, min, max and last point of every pixel column which
+ * results in the same rasterized line as drawing all points.
+ * LTTB (largest triangle three buckets) keeps the visually most
+ * significant points for a given number of buckets.
+ */
+public class Decimator {
+
+    // ******************** Constructors **************************************
+    private Decimator() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Reduces the points in [FROM, TO) of SOURCE to at most 4 points per pixel column.
+     * Points left or right of the visible area are collected in one column each.
+     * The points have to be sorted by x.
+     */
+    public static final void m4(final PointSource SOURCE, final int FROM, final int TO, final double MIN_X, final double STEP_X, final int WIDTH, final PointBuffer TARGET) {
+        TARGET.clear();
+        if (TO - FROM <= 0) { return; }
+        int    column     = column(SOURCE.getX(FROM), MIN_X, STEP_X, WIDTH);
+        int    firstIndex = FROM;
+        int    minIndex   = FROM;
+        int    maxIndex   = FROM;
+        int    lastIndex  = FROM;
+        double minY       = SOURCE.getY(FROM);
+        double maxY       = minY;
+        for (int i = FROM + 1 ; i < TO ; i++) {
+            int    c = column(SOURCE.getX(i), MIN_X, STEP_X, WIDTH);
+            double y = SOURCE.getY(i);
+            if (c != column) {
+                addColumn(SOURCE, firstIndex, minIndex, maxIndex, lastIndex, TARGET);
+                column     = c;
+                firstIndex = i;
+                minIndex   = i;
+                maxIndex   = i;
+                minY       = y;
+                maxY       = y;
+            } else {
+                if (y < minY) { minIndex = i; minY = y; }
+                if (y > maxY) { maxIndex = i; maxY = y; }
+            }
+            lastIndex = i;
+        }
+        addColumn(SOURCE, firstIndex, minIndex, maxIndex, lastIndex, TARGET);
+    }
+
+    /**
+     * Reduces the points in [FROM, TO) of SOURCE to THRESHOLD points using the
+     * largest triangle three buckets algorithm.
+     */
+    public static final void lttb(final PointSource SOURCE, final int FROM, final int TO, final int THRESHOLD, final PointBuffer TARGET) {
+        TARGET.clear();
+        int length = TO - FROM;
+        if (THRESHOLD < 3 || length <= THRESHOLD) {
+            TARGET.addAll(SOURCE, FROM, FROM + Math.max(0, length));
+            return;
+        }
+        TARGET.ensureCapacity(THRESHOLD);
+
+        double bucketSize = (double) (length - 2) / (THRESHOLD - 2);
+        int    a          = FROM;
+        TARGET.add(SOURCE.getX(a), SOURCE.getY(a));
+        for (int bucket = 0 ; bucket < THRESHOLD - 2 ; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int    nextStart = FROM + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int    nextEnd   = Math.min(FROM + (int) Math.floor((bucket + 2) * bucketSize) + 1, TO);
+            double avgX      = 0;
+            double avgY      = 0;
+            for (int i = nextStart ; i < nextEnd ; i++) {
+                avgX += SOURCE.getX(i);
+                avgY += SOURCE.getY(i);
+            }
+            int noInNext = nextEnd - nextStart;
+            if (noInNext > 0) {
+                avgX /= noInNext;
+                avgY /= noInNext;
+            } else {
+                avgX = SOURCE.getX(TO - 1);
+                avgY = SOURCE.getY(TO - 1);
+            }
+
+            int    start   = FROM + (int) Math.floor(bucket * bucketSize) + 1;
+            int    end     = FROM + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double ax      = SOURCE.getX(a);
+            double ay      = SOURCE.getY(a);
+            double maxArea = -1;
+            int    maxAt   = start;
+            for (int i = start ; i < end ; i++) {
+                double area = Math.abs((ax - avgX) * (SOURCE.getY(i) - ay) - (ax - SOURCE.getX(i)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAt   = i;
+                }
+            }
+            TARGET.add(SOURCE.getX(maxAt), SOURCE.getY(maxAt));
+            a = maxAt;
+        }
+        TARGET.add(SOURCE.getX(TO - 1), SOURCE.getY(TO - 1));
+    }
+
+    static int column(final double X, final double MIN_X, final double STEP_X, final int WIDTH) {
+        double c = Math.floor((X - MIN_X) * STEP_X);
+        if (c < 0)     { return -1; }
+        if (c > WIDTH) { return WIDTH; }
+        return (int) c;
+    }
+
+    // Adds the points of one column in index order without duplicates
+    private static void addColumn(final PointSource SOURCE, final int FIRST, final int MIN, final int MAX, final int LAST, final PointBuffer TARGET) {
+        int lower = Math.min(MIN, MAX);
+        int upper = Math.max(MIN, MAX);
+        TARGET.add(SOURCE.getX(FIRST), SOURCE.getY(FIRST));
+        if (lower != FIRST)                   { TARGET.add(SOURCE.getX(lower), SOURCE.getY(lower)); }
+        if (upper != lower && upper != FIRST) { TARGET.add(SOURCE.getX(upper), SOURCE.getY(upper)); }
+        if (LAST != upper && LAST != FIRST)   { TARGET.add(SOURCE.getX(LAST), SOURCE.getY(LAST)); }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.util.Arrays;
+
+
+/**
+ * Two dimensional histogram of screen coordinates with square or hexagonal
+ * bins of the given size in pixels. Points are added in data coordinates and
+ * transformed to the screen with the given min values and steps. The counts
+ * can be colour mapped into an ARGB pixel array (logarithmic scale) with
+ * the size of the histogram.
+ */
+public class DensityMap {
+    private static final double  SQRT_3      = Math.sqrt(3);
+    private static final int[]   COLOR_STOPS = { 0xff30123b, 0xff4686fb, 0xff1be5b5, 0xffa4fc3c, 0xfffbb938, 0xffe4460a, 0xff7a0403 };
+    private static final int[]   COLOR_MAP   = createColorMap(256);
+    private final        int     width;
+    private final        int     height;
+    private final        double  binSize;
+    private final        boolean hexagonal;
+    private final        double  dx;
+    private final        double  dy;
+    private final        int     columns;
+    private final        int     rows;
+    private final        int[]   counts;
+    private              int     maxCount;
+    private              long    noOfPoints;
+    private              int[]   pixelBins;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param WIDTH     width of the histogram in pixels
+     * @param HEIGHT    height of the histogram in pixels
+     * @param BIN_SIZE  width of a bin in pixels
+     * @param HEXAGONAL if true pointy topped hexagons will be used instead of squares
+     */
+    public DensityMap(final int WIDTH, final int HEIGHT, final double BIN_SIZE, final boolean HEXAGONAL) {
+        width     = Math.max(1, WIDTH);
+        height    = Math.max(1, HEIGHT);
+        binSize   = Math.max(1, BIN_SIZE);
+        hexagonal = HEXAGONAL;
+        if (hexagonal) {
+            // Hexagons with a width of binSize => radius = binSize / sqrt(3)
+            dx      = binSize;
+            dy      = binSize / SQRT_3 * 1.5;
+            columns = (int) Math.ceil(width / dx) + 3;
+            rows    = (int) Math.ceil(height / dy) + 2;
+        } else {
+            dx      = binSize;
+            dy      = binSize;
+            columns = (int) Math.ceil(width / dx);
+            rows    = (int) Math.ceil(height / dy);
+        }
+        counts = new int[columns * rows];
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getWidth() { return width; }
+
+    public int getHeight() { return height; }
+
+    public double getBinSize() { return binSize; }
+
+    public boolean isHexagonal() { return hexagonal; }
+
+    public int getMaxCount() { return maxCount; }
+
+    public long getNoOfPoints() { return noOfPoints; }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        maxCount   = 0;
+        noOfPoints = 0;
+    }
+
+    /**
+     * Adds the points [FROM, TO) of XS/YS to the histogram, points outside of the histogram will be ignored.
+     */
+    public void add(final double[] XS, final double[] YS, final int FROM, final int TO,
+                    final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y) {
+        for (int i = FROM ; i < TO ; i++) {
+            int bin = binIndex((XS[i] - MIN_X) * STEP_X, height - (YS[i] - MIN_Y) * STEP_Y);
+            if (bin < 0) { continue; }
+            int count = ++counts[bin];
+            if (count > maxCount) { maxCount = count; }
+            noOfPoints++;
+        }
+    }
+
+    /**
+     * Adds the points [FROM, TO) of SOURCE to the histogram, points outside of the histogram will be ignored.
+     */
+    public void add(final PointSource SOURCE, final int FROM, final int TO,
+                    final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y) {
+        if (SOURCE instanceof PointBuffer) {
+            PointBuffer points = (PointBuffer) SOURCE;
+            add(points.getXs(), points.getYs(), FROM, TO, MIN_X, MIN_Y, STEP_X, STEP_Y);
+            return;
+        }
+        for (int i = FROM ; i < TO ; i++) {
+            int bin = binIndex((SOURCE.getX(i) - MIN_X) * STEP_X, height - (SOURCE.getY(i) - MIN_Y) * STEP_Y);
+            if (bin < 0) { continue; }
+            int count = ++counts[bin];
+            if (count > maxCount) { maxCount = count; }
+            noOfPoints++;
+        }
+    }
+
+    /**
+     * Returns the index of the bin that contains the given screen position or -1 if it is outside the histogram.
+     */
+    public int binIndex(final double X, final double Y) {
+        if (X < 0 || Y < 0 || X >= width || Y >= height || Double.isNaN(X) || Double.isNaN(Y)) { return -1; }
+        if (!hexagonal) { return (int) (Y / dy) * columns + (int) (X / dx); }
+
+        // Find the nearest hexagon center of the two candidate rows
+        double py  = Y / dy;
+        int    pj  = (int) Math.round(py);
+        double px  = X / dx - (pj & 1) * 0.5;
+        double pi  = Math.round(px);
+        double py1 = py - pj;
+        if (Math.abs(py1) * 3 > 1) {
+            double px1 = px - pi;
+            double pi2 = pi + (px < pi ? -0.5 : 0.5);
+            int    pj2 = pj + (py < pj ? -1 : 1);
+            double px2 = px - pi2;
+            double py2 = py - pj2;
+            if (px1 * px1 + py1 * py1 > px2 * px2 + py2 * py2) {
+                pi = pi2 + ((pj & 1) == 1 ? 0.5 : -0.5);
+                pj = pj2;
+            }
+        }
+        int column = (int) pi + 1;
+        if (pj < 0 || pj >= rows || column < 0 || column >= columns) { return -1; }
+        return pj * columns + column;
+    }
+
+    /**
+     * Colour maps the counts into PIXELS (non premultiplied ARGB, width * height),
+     * empty bins will be transparent.
+     */
+    public void toPixels(final int[] PIXELS) {
+        if (null == pixelBins) { pixelBins = createPixelBins(); }
+        if (0 == maxCount) {
+            Arrays.fill(PIXELS, 0, width * height, 0);
+            return;
+        }
+        double scale = (COLOR_MAP.length - 1) / Math.log1p(maxCount);
+        for (int i = 0, n = width * height ; i < n ; i++) {
+            int bin   = pixelBins[i];
+            int count = bin < 0 ? 0 : counts[bin];
+            PIXELS[i] = 0 == count ? 0 : COLOR_MAP[(int) (Math.log1p(count) * scale)];
+        }
+    }
+
+    // Caches the bin of every pixel center, mainly to avoid the hexagon lookup per pixel and frame
+    private int[] createPixelBins() {
+        int[] bins = new int[width * height];
+        for (int y = 0 ; y < height ; y++) {
+            int offset = y * width;
+            for (int x = 0 ; x < width ; x++) {
+                bins[offset + x] = binIndex(x + 0.5, y + 0.5);
+            }
+        }
+        return bins;
+    }
+
+    private static int[] createColorMap(final int SIZE) {
+        int[] colors   = new int[SIZE];
+        int   segments = COLOR_STOPS.length - 1;
+        for (int i = 0 ; i < SIZE ; i++) {
+            double position = (double) i / (SIZE - 1) * segments;
+            int    segment  = Math.min(segments - 1, (int) position);
+            double fraction = position - segment;
+            int    from     = COLOR_STOPS[segment];
+            int    to       = COLOR_STOPS[segment + 1];
+            int    red      = (int) Math.round(((from >> 16) & 0xff) + (((to >> 16) & 0xff) - ((from >> 16) & 0xff)) * fraction);
+            int    green    = (int) Math.round(((from >> 8) & 0xff) + (((to >> 8) & 0xff) - ((from >> 8) & 0xff)) * fraction);
+            int    blue     = (int) Math.round((from & 0xff) + ((to & 0xff) - (from & 0xff)) * fraction);
+            colors[i] = 0xff000000 | (red << 16) | (green << 8) | blue;
+        }
+        return colors;
+    }
+}
@@ -27,7 +27,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -149,6 +149,62 @@ public class Helper {
         }
     }
 
+    /**
+     * Returns the index of the first of the first SIZE values that is >= KEY (SIZE if there is none).
+     * The values have to be sorted in ascending order.
+     */
+    public static final int lowerBound(final double[] VALUES, final int SIZE, final double KEY) {
+        int low  = 0;
+        int high = SIZE;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (VALUES[mid] < KEY) { low = mid + 1; } else { high = mid; }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first of the first SIZE values that is > KEY (SIZE if there is none).
+     * The values have to be sorted in ascending order.
+     */
+    public static final int upperBound(final double[] VALUES, final int SIZE, final double KEY) {
+        int low  = 0;
+        int high = SIZE;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (VALUES[mid] <= KEY) { low = mid + 1; } else { high = mid; }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first x value of SOURCE that is >= KEY (size if there is none).
+     * The x values have to be sorted in ascending order.
+     */
+    public static final int lowerBound(final PointSource SOURCE, final double KEY) {
+        int low  = 0;
+        int high = SOURCE.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (SOURCE.getX(mid) < KEY) { low = mid + 1; } else { high = mid; }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first x value of SOURCE that is > KEY (size if there is none).
+     * The x values have to be sorted in ascending order.
+     */
+    public static final int upperBound(final PointSource SOURCE, final double KEY) {
+        int low  = 0;
+        int high = SOURCE.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (SOURCE.getX(mid) <= KEY) { low = mid + 1; } else { high = mid; }
+        }
+        return low;
+    }
+
     public static final boolean isPowerOf10(final double VALUE) {
         double value = VALUE;
         while(value > 9 && value % 10 == 0) { value /= 10; }
@@ -163,29 +219,30 @@ public class Helper {
         return Color.color(red, green, blue, opacity);
     }
 
-    public static final LinkedList<Pair<Double,Double>> convertXYPairsToList(final String XY_PAIRS) {
-        String[] pointsArray = XY_PAIRS.trim().split(",");
-        int      length      = pointsArray.length;
-        LinkedList<Pair<Double,Double>> points = new LinkedList<>();
-        if (length % 2 != 0) { throw new IllegalArgumentException("XYPairs must contain an equal number of x,y coordinates"); }
-        for (int i = 1 ; i < length ; i+=2) {
-            points.add(new Pair<>(Double.valueOf(pointsArray[i - 1]), Double.valueOf(pointsArray[i])));
+    /**
+     * Use PointParser to parse large texts directly into a PointBuffer without boxing.
+     */
+    public static final List<Pair<Double,Double>> convertXYPairsToList(final String XY_PAIRS) {
+        PointBuffer               buffer = PointParser.parse(XY_PAIRS);
+        List<Pair<Double,Double>> points = new ArrayList<>(buffer.size());
+        for (int i = 0 ; i < buffer.size() ; i++) {
+            points.add(new Pair<>(buffer.getX(i), buffer.getY(i)));
         }
         return points;
     }
 
     public static final List<Pair<Double,Double>> convertXYPairsToList(final Double[][] XY_PAIRS) {
-        LinkedList<Pair<Double,Double>> points = new LinkedList<>();
+        List<Pair<Double,Double>> points = new ArrayList<>(XY_PAIRS.length);
         for (int i = 0 ; i < XY_PAIRS.length ; i++) {
-            if (XY_PAIRS.length != 0) { throw new IllegalArgumentException("XYPairs must contain an equal number of x,y coordinates"); }
+            if (XY_PAIRS[i].length != 2) { throw new IllegalArgumentException("XYPairs must contain an equal number of x,y coordinates"); }
             points.add(new Pair<>(XY_PAIRS[i][0], XY_PAIRS[i][1]));
         }
         return points;
     }
 
     public static final List<Pair<Double,Double>> convertXYPairsToList(final List<Double[]> XY_PAIRS) {
-        LinkedList<Pair<Double,Double>> points = new LinkedList<>();
-        int      length      = XY_PAIRS.size();
+        int                       length = XY_PAIRS.size();
+        List<Pair<Double,Double>> points = new ArrayList<>(length);
         for (int i = 0 ; i < length ; i++) {
             points.add(new Pair<>(XY_PAIRS.get(i)[0], XY_PAIRS.get(i)[1]));
         }
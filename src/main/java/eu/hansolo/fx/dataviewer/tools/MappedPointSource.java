@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Read only PointSource on a memory mapped binary file of little endian
+ * x/y pairs (x0 y0 x1 y1 ...). The file is mapped in chunks of 1 GB, so
+ * files larger than 2 GB are supported, and values are read directly from
+ * the mapping without copying them to the heap. Paging is left to the OS.
+ */
+public class MappedPointSource implements PointSource {
+    public enum Format {
+        FLOAT64(8), FLOAT32(4);
+
+        public final int bytes;
+
+        Format(final int BYTES) { bytes = BYTES; }
+    }
+
+    private static final long         CHUNK_BYTES = 1L << 30;
+    private        final Path         file;
+    private        final Format       format;
+    private        final boolean      xSortedKnown;
+    private        final int          size;
+    private        final int          chunkShift;
+    private        final int          chunkMask;
+    private        final ByteBuffer[] chunks;
+    private volatile     double[]     bounds;
+    private              boolean      xSorted;
+
+
+    // ******************** Constructors **************************************
+    public MappedPointSource(final Path FILE, final Format FORMAT) throws IOException {
+        this(FILE, FORMAT, false);
+    }
+    /**
+     * @param FILE     binary file of little endian x/y pairs
+     * @param FORMAT   FLOAT64 or FLOAT32
+     * @param X_SORTED true if the x values are known to be ascending, otherwise the order will be checked
+     *                 lazily together with the bounds in one pass over the file
+     */
+    public MappedPointSource(final Path FILE, final Format FORMAT, final boolean X_SORTED) throws IOException {
+        file         = FILE;
+        format       = FORMAT;
+        xSortedKnown = X_SORTED;
+
+        int  pointBytes     = 2 * FORMAT.bytes;
+        long pointsPerChunk = CHUNK_BYTES / pointBytes;
+        chunkShift = Long.numberOfTrailingZeros(pointsPerChunk);
+        chunkMask  = (int) pointsPerChunk - 1;
+
+        try (FileChannel channel = FileChannel.open(FILE, StandardOpenOption.READ)) {
+            long noOfPoints = channel.size() / pointBytes;
+            if (noOfPoints > Integer.MAX_VALUE) { throw new IOException("File contains more than " + Integer.MAX_VALUE + " points: " + FILE); }
+            size   = (int) noOfPoints;
+            chunks = new ByteBuffer[(int) ((noOfPoints + pointsPerChunk - 1) / pointsPerChunk)];
+            for (int i = 0 ; i < chunks.length ; i++) {
+                long position = i * pointsPerChunk * pointBytes;
+                long length   = Math.min(pointsPerChunk, noOfPoints - i * pointsPerChunk) * pointBytes;
+                chunks[i] = channel.map(MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public int size() { return size; }
+
+    @Override public double getX(final int INDEX) { return get(INDEX, 0); }
+
+    @Override public double getY(final int INDEX) { return get(INDEX, 1); }
+
+    @Override public boolean isXSorted() {
+        if (xSortedKnown) { return true; }
+        getBounds();
+        return xSorted;
+    }
+
+    @Override public boolean isReadOnly() { return true; }
+
+    @Override public double getMinX() { return getBounds()[0]; }
+
+    @Override public double getMinY() { return getBounds()[1]; }
+
+    @Override public double getMaxX() { return getBounds()[2]; }
+
+    @Override public double getMaxY() { return getBounds()[3]; }
+
+    public Path getFile() { return file; }
+
+    // The file is read only, so the bounds and the order of the x values are computed once on first access
+    private double[] getBounds() {
+        double[] result = bounds;
+        return null == result ? scan() : result;
+    }
+
+    private synchronized double[] scan() {
+        if (null != bounds) { return bounds; }
+        double  minX     = Double.POSITIVE_INFINITY;
+        double  minY     = Double.POSITIVE_INFINITY;
+        double  maxX     = Double.NEGATIVE_INFINITY;
+        double  maxY     = Double.NEGATIVE_INFINITY;
+        double  previous = Double.NEGATIVE_INFINITY;
+        boolean sorted   = true;
+        for (int i = 0 ; i < size ; i++) {
+            double x = getX(i);
+            double y = getY(i);
+            if (x < minX) { minX = x; }
+            if (x > maxX) { maxX = x; }
+            if (y < minY) { minY = y; }
+            if (y > maxY) { maxY = y; }
+            // NaN values can't be searched, so they count as unsorted
+            if (!(x >= previous)) { sorted = false; }
+            previous = x;
+        }
+        // Written before the volatile bounds, so it is visible to every thread that sees the bounds
+        xSorted = sorted;
+        bounds  = new double[] { minX, minY, maxX, maxY };
+        return bounds;
+    }
+
+
+    public Format getFormat() { return format; }
+
+    private double get(final int INDEX, final int COMPONENT) {
+        if (INDEX < 0 || INDEX >= size) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + size); }
+        ByteBuffer chunk  = chunks[INDEX >>> chunkShift];
+        int        offset = ((INDEX & chunkMask) * 2 + COMPONENT) * format.bytes;
+        return Format.FLOAT64 == format ? chunk.getDouble(offset) : chunk.getFloat(offset);
+    }
+}
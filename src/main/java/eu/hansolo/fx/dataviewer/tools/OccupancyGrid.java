@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.util.Arrays;
+
+
+/**
+ * Screen space grid with one cell per symbol size that keeps track of
+ * occupied cells in a bitmap. Optionally it counts the number of symbols
+ * per cell and remembers the first symbol of every occupied cell, so that
+ * overlapping symbols can be replaced by one symbol with a count badge.
+ * The arrays will be reused as long as the grid doesn't grow.
+ */
+public class OccupancyGrid {
+    private double   cellSize;
+    private int      columns;
+    private int      rows;
+    private long[]   bits;
+    private int[]    counts;
+    private int[]    firstIndices;
+    private int[]    occupiedCells;
+    private int      noOfOccupiedCells;
+
+
+    // ******************** Constructors **************************************
+    public OccupancyGrid() {
+        bits              = new long[0];
+        counts            = new int[0];
+        firstIndices      = new int[0];
+        occupiedCells     = new int[0];
+        noOfOccupiedCells = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Clears the grid and sets it up for an area of WIDTH x HEIGHT pixels
+     * with square cells of CELL_SIZE pixels.
+     */
+    public void reset(final double WIDTH, final double HEIGHT, final double CELL_SIZE) {
+        cellSize = Math.max(1, CELL_SIZE);
+        columns  = Math.max(1, (int) Math.ceil(WIDTH / cellSize));
+        rows     = Math.max(1, (int) Math.ceil(HEIGHT / cellSize));
+        int noOfCells = columns * rows;
+        int noOfWords = (noOfCells + 63) >>> 6;
+        if (bits.length < noOfWords) {
+            bits = new long[noOfWords];
+        } else {
+            Arrays.fill(bits, 0, noOfWords, 0L);
+        }
+        if (counts.length < noOfCells) {
+            counts        = new int[noOfCells];
+            firstIndices  = new int[noOfCells];
+            occupiedCells = new int[noOfCells];
+        }
+        noOfOccupiedCells = 0;
+    }
+
+    /**
+     * Returns the index of the cell that contains the given screen position or -1 if it is outside the grid.
+     */
+    public int cellIndex(final double X, final double Y) {
+        if (X < 0 || Y < 0) { return -1; }
+        int column = (int) (X / cellSize);
+        int row    = (int) (Y / cellSize);
+        if (column >= columns || row >= rows) { return -1; }
+        return row * columns + column;
+    }
+
+    public boolean isOccupied(final int CELL) { return (bits[CELL >>> 6] & (1L << CELL)) != 0; }
+
+    /**
+     * Marks the cell as occupied and returns true if it was free before.
+     */
+    public boolean occupy(final int CELL) {
+        if (isOccupied(CELL)) { return false; }
+        bits[CELL >>> 6] |= 1L << CELL;
+        return true;
+    }
+
+    /**
+     * Counts a symbol with the given INDEX in the cell, the first symbol of a cell will be remembered.
+     */
+    public void count(final int CELL, final int INDEX) {
+        if (occupy(CELL)) {
+            counts[CELL]                       = 1;
+            firstIndices[CELL]                 = INDEX;
+            occupiedCells[noOfOccupiedCells++] = CELL;
+        } else {
+            counts[CELL]++;
+        }
+    }
+
+    public int getNoOfOccupiedCells() { return noOfOccupiedCells; }
+
+    /**
+     * Returns the cell index of the n-th occupied cell in the order they have been occupied.
+     */
+    public int getOccupiedCell(final int N) { return occupiedCells[N]; }
+
+    public int getCount(final int CELL) { return counts[CELL]; }
+
+    public int getFirstIndex(final int CELL) { return firstIndices[CELL]; }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Growable columnar storage of x/y coordinates in two primitive
+ * double arrays (16 bytes per point instead of a boxed Pair).
+ * Points removed from the front with removeFirst() only move a start
+ * offset, the arrays will be compacted when space is needed or the
+ * backing arrays are requested.
+ */
+public class PointBuffer implements PointSource {
+    private static final int                               DEFAULT_CAPACITY = 16;
+    private static final double[]                          EMPTY            = {};
+    private              double[]                          xs;
+    private              double[]                          ys;
+    private              int                               start;
+    private              int                               size;
+    private              long                              noOfRemovedFirst;
+    private              boolean                           xSorted;
+    private              boolean                           boundsValid;
+    private              double                            minX;
+    private              double                            minY;
+    private              double                            maxX;
+    private              double                            maxY;
+    private              CopyOnWriteArrayList<IntConsumer> changeListeners;
+
+
+    // ******************** Constructors **************************************
+    public PointBuffer() {
+        this(0);
+    }
+    public PointBuffer(final int CAPACITY) {
+        if (CAPACITY < 0) { throw new IllegalArgumentException("Capacity must not be negative"); }
+        xs              = 0 == CAPACITY ? EMPTY : new double[CAPACITY];
+        ys              = 0 == CAPACITY ? EMPTY : new double[CAPACITY];
+        start           = 0;
+        size            = 0;
+        xSorted         = true;
+        changeListeners = new CopyOnWriteArrayList<>();
+        resetBounds();
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public int size() { return size; }
+
+    public boolean isEmpty() { return 0 == size; }
+
+    @Override public double getX(final int INDEX) { return xs[start + INDEX]; }
+
+    @Override public double getY(final int INDEX) { return ys[start + INDEX]; }
+
+    @Override public boolean isReadOnly() { return false; }
+
+    @Override public void read(final int FROM, final int TO, final double[] XS, final double[] YS, final int OFFSET) {
+        System.arraycopy(xs, start + FROM, XS, OFFSET, TO - FROM);
+        System.arraycopy(ys, start + FROM, YS, OFFSET, TO - FROM);
+    }
+
+    /**
+     * Returns true if the x values are in ascending order. The flag is updated on
+     * every mutation by only looking at the modified points and their neighbours.
+     * Removing points never clears the flag but also does not detect a restored order.
+     */
+    @Override public boolean isXSorted() { return xSorted; }
+
+    /**
+     * The bounds are extended in O(1) per appended point, removing or
+     * replacing points invalidates them and they will be recomputed on
+     * the next request.
+     */
+    @Override public double getMinX() {
+        validateBounds();
+        return minX;
+    }
+
+    @Override public double getMinY() {
+        validateBounds();
+        return minY;
+    }
+
+    @Override public double getMaxX() {
+        validateBounds();
+        return maxX;
+    }
+
+    @Override public double getMaxY() {
+        validateBounds();
+        return maxY;
+    }
+
+    /**
+     * Returns the backing array of x values, only the first size() entries are valid.
+     * The array will be replaced when the buffer grows.
+     */
+    public double[] getXs() {
+        compact();
+        return xs;
+    }
+
+    /**
+     * Returns the backing array of y values, only the first size() entries are valid.
+     * The array will be replaced when the buffer grows.
+     */
+    public double[] getYs() {
+        compact();
+        return ys;
+    }
+
+    public void set(final int INDEX, final double X, final double Y) {
+        checkIndex(INDEX);
+        compact();
+        xs[INDEX] = X;
+        ys[INDEX] = Y;
+        boundsValid = false;
+        checkOrder(INDEX, INDEX + 1);
+        fireChange(INDEX);
+    }
+
+    public void add(final double X, final double Y) {
+        ensureCapacity(size + 1);
+        xs[start + size] = X;
+        ys[start + size] = Y;
+        size++;
+        extendBounds(size - 1, size);
+        checkOrder(size - 1, size);
+        fireChange(size - 1);
+    }
+    public void add(final int INDEX, final double X, final double Y) {
+        if (INDEX < 0 || INDEX > size) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + size); }
+        ensureCapacity(size + 1);
+        compact();
+        System.arraycopy(xs, INDEX, xs, INDEX + 1, size - INDEX);
+        System.arraycopy(ys, INDEX, ys, INDEX + 1, size - INDEX);
+        xs[INDEX] = X;
+        ys[INDEX] = Y;
+        size++;
+        extendBounds(INDEX, INDEX + 1);
+        checkOrder(INDEX, INDEX + 1);
+        fireChange(INDEX);
+    }
+
+    public void addAll(final double[] XS, final double[] YS) { addAll(XS, YS, 0, checkLength(XS, YS)); }
+    public void addAll(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        if (OFFSET < 0 || LENGTH < 0 || OFFSET + LENGTH > XS.length || OFFSET + LENGTH > YS.length) {
+            throw new IndexOutOfBoundsException("Offset: " + OFFSET + ", Length: " + LENGTH);
+        }
+        ensureCapacity(size + LENGTH);
+        System.arraycopy(XS, OFFSET, xs, start + size, LENGTH);
+        System.arraycopy(YS, OFFSET, ys, start + size, LENGTH);
+        size += LENGTH;
+        extendBounds(size - LENGTH, size);
+        checkOrder(size - LENGTH, size);
+        fireChange(size - LENGTH);
+    }
+
+    /**
+     * Appends the points [FROM, TO) of SOURCE.
+     */
+    public void addAll(final PointSource SOURCE, final int FROM, final int TO) {
+        if (FROM < 0 || FROM > TO || TO > SOURCE.size()) { throw new IndexOutOfBoundsException("From: " + FROM + ", To: " + TO + ", Size: " + SOURCE.size()); }
+        int length = TO - FROM;
+        ensureCapacity(size + length);
+        SOURCE.read(FROM, TO, xs, ys, start + size);
+        size += length;
+        extendBounds(size - length, size);
+        checkOrder(size - length, size);
+        fireChange(size - length);
+    }
+
+    public void setAll(final double[] XS, final double[] YS) { setAll(XS, YS, 0, checkLength(XS, YS)); }
+    public void setAll(final double[] XS, final double[] YS, final int OFFSET, final int LENGTH) {
+        start   = 0;
+        size    = 0;
+        xSorted = true;
+        resetBounds();
+        addAll(XS, YS, OFFSET, LENGTH);
+    }
+
+    public void remove(final int INDEX) {
+        checkIndex(INDEX);
+        compact();
+        int noOfMoved = size - INDEX - 1;
+        if (noOfMoved > 0) {
+            System.arraycopy(xs, INDEX + 1, xs, INDEX, noOfMoved);
+            System.arraycopy(ys, INDEX + 1, ys, INDEX, noOfMoved);
+        }
+        size--;
+        boundsValid = false;
+        fireChange(INDEX);
+    }
+
+    /**
+     * Removes the points [FROM, TO) with one array copy.
+     */
+    public void removeRange(final int FROM, final int TO) {
+        if (FROM < 0 || FROM > TO || TO > size) { throw new IndexOutOfBoundsException("From: " + FROM + ", To: " + TO + ", Size: " + size); }
+        if (FROM == TO) { return; }
+        if (0 == FROM) {
+            removeFirst(TO);
+            return;
+        }
+        compact();
+        System.arraycopy(xs, TO, xs, FROM, size - TO);
+        System.arraycopy(ys, TO, ys, FROM, size - TO);
+        size -= TO - FROM;
+        boundsValid = false;
+        fireChange(FROM);
+    }
+
+    /**
+     * Removes all points that match PREDICATE in one pass and returns their number.
+     * PREDICATE is called exactly once per point in ascending order.
+     */
+    public int removeIf(final PointPredicate PREDICATE) {
+        compact();
+        int firstRemoved = -1;
+        int target       = 0;
+        for (int i = 0 ; i < size ; i++) {
+            if (PREDICATE.test(xs[i], ys[i])) {
+                if (firstRemoved < 0) { firstRemoved = i; }
+            } else {
+                xs[target] = xs[i];
+                ys[target] = ys[i];
+                target++;
+            }
+        }
+        int noOfRemoved = size - target;
+        size = target;
+        if (noOfRemoved > 0) {
+            boundsValid = false;
+            fireChange(firstRemoved);
+        }
+        return noOfRemoved;
+    }
+
+    /**
+     * Returns the index of the first point with the given coordinates or -1 if there is none.
+     */
+    public int indexOf(final double X, final double Y) {
+        for (int i = 0 ; i < size ; i++) {
+            if (Double.compare(xs[start + i], X) == 0 && Double.compare(ys[start + i], Y) == 0) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the first COUNT points in O(1) by moving the start offset,
+     * e.g. to evict old samples of a ring buffer.
+     */
+    public void removeFirst(final int COUNT) {
+        if (COUNT < 0 || COUNT > size) { throw new IndexOutOfBoundsException("Count: " + COUNT + ", Size: " + size); }
+        if (0 == COUNT) { return; }
+        start            += COUNT;
+        size             -= COUNT;
+        noOfRemovedFirst += COUNT;
+        boundsValid       = false;
+        if (0 == size) { start = 0; }
+        fireChange(0);
+    }
+
+    /**
+     * Returns the total number of points that have been removed with removeFirst(). It is
+     * updated before the change listeners are called, so they can tell evictions in front
+     * from modifications of the points.
+     */
+    public long getNoOfRemovedFirst() { return noOfRemovedFirst; }
+
+    public void clear() {
+        start   = 0;
+        size    = 0;
+        xSorted = true;
+        resetBounds();
+        fireChange(0);
+    }
+
+    public void ensureCapacity(final int CAPACITY) {
+        if (start + CAPACITY <= xs.length) { return; }
+        // Compacting is amortized O(1) if at least as many points were removed in front as are left
+        if (CAPACITY <= xs.length && start >= size) {
+            compact();
+            return;
+        }
+        int      newCapacity = Math.max(Math.max(DEFAULT_CAPACITY, CAPACITY), xs.length + (xs.length >> 1));
+        double[] newXs       = new double[newCapacity];
+        double[] newYs       = new double[newCapacity];
+        System.arraycopy(xs, start, newXs, 0, size);
+        System.arraycopy(ys, start, newYs, 0, size);
+        xs    = newXs;
+        ys    = newYs;
+        start = 0;
+    }
+
+    public void trimToSize() {
+        compact();
+        if (size == xs.length) { return; }
+        xs = 0 == size ? EMPTY : Arrays.copyOf(xs, size);
+        ys = 0 == size ? EMPTY : Arrays.copyOf(ys, size);
+    }
+
+    /**
+     * The listener will be called with the lowest index that was modified,
+     * all points from this index on might have changed.
+     */
+    public void addChangeListener(final IntConsumer LISTENER) { if (!changeListeners.contains(LISTENER)) { changeListeners.add(LISTENER); }}
+    public void removeChangeListener(final IntConsumer LISTENER) { changeListeners.remove(LISTENER); }
+
+    private void fireChange(final int FROM_INDEX) { for (IntConsumer listener : changeListeners) { listener.accept(FROM_INDEX); }}
+
+    // Moves the live points to the beginning of the backing arrays
+    private void compact() {
+        if (0 == start) { return; }
+        System.arraycopy(xs, start, xs, 0, size);
+        System.arraycopy(ys, start, ys, 0, size);
+        start = 0;
+    }
+
+    private void resetBounds() {
+        minX        = Double.POSITIVE_INFINITY;
+        minY        = Double.POSITIVE_INFINITY;
+        maxX        = Double.NEGATIVE_INFINITY;
+        maxY        = Double.NEGATIVE_INFINITY;
+        boundsValid = true;
+    }
+
+    private void validateBounds() {
+        if (boundsValid) { return; }
+        resetBounds();
+        extendBounds(0, size);
+    }
+
+    // Extends valid bounds by the points [FROM, TO), invalid bounds will be recomputed on request anyway
+    private void extendBounds(final int FROM, final int TO) {
+        if (!boundsValid) { return; }
+        for (int i = start + FROM, end = start + TO ; i < end ; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            if (x < minX) { minX = x; }
+            if (x > maxX) { maxX = x; }
+            if (y < minY) { minY = y; }
+            if (y > maxY) { maxY = y; }
+        }
+    }
+
+    // Checks the order of the points in [FROM, TO) including their left and right neighbour
+    private void checkOrder(final int FROM, final int TO) {
+        if (!xSorted) { return; }
+        int from = start + Math.max(1, FROM);
+        int to   = start + Math.min(size, TO + 1);
+        for (int i = from ; i < to ; i++) {
+            if (xs[i] < xs[i - 1]) {
+                xSorted = false;
+                return;
+            }
+        }
+    }
+
+    private void checkIndex(final int INDEX) {
+        if (INDEX < 0 || INDEX >= size) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + size); }
+    }
+
+    private static int checkLength(final double[] XS, final double[] YS) {
+        if (XS.length != YS.length) { throw new IllegalArgumentException("XS and YS must contain an equal number of coordinates"); }
+        return XS.length;
+    }
+}
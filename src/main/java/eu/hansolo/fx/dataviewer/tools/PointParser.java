@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * Streaming parser for text with x,y pairs like "x0,y0,x1,y1,...". Values may
+ * be separated by commas, semicolons or whitespace (incl. line breaks). The
+ * text is read in chunks and numbers are parsed directly from the char buffer
+ * without creating substrings, only numbers that can't be converted exactly by
+ * the fast path (more than 15 significant digits, large exponents, NaN...)
+ * fall back to Double.parseDouble(). Parsed points are appended in batches
+ * to a PointBuffer.
+ */
+public class PointParser {
+    public  static final int      BUFFER_SIZE   = 64 * 1024;
+    private static final int      BATCH_SIZE    = 8_192;
+    private static final int      MAX_DIGITS    = 15;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                                    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+
+    // ******************** Constructors **************************************
+    private PointParser() {}
+
+
+    // ******************** Methods *******************************************
+    public static final PointBuffer parse(final String TEXT) {
+        PointBuffer points = new PointBuffer();
+        try {
+            parse(new StringReader(TEXT), TEXT.length(), points, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return points;
+    }
+
+    /**
+     * Parses the UTF-8 encoded file and appends the points to TARGET.
+     * PROGRESS (may be null) will be called with the parsed fraction of the file.
+     */
+    public static final void parse(final Path FILE, final PointBuffer TARGET, final DoubleConsumer PROGRESS) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(FILE), StandardCharsets.UTF_8)) {
+            parse(reader, Files.size(FILE), TARGET, PROGRESS);
+        }
+    }
+
+    /**
+     * Parses the UTF-8 encoded stream and appends the points to TARGET. The stream won't be closed.
+     */
+    public static final void parse(final InputStream INPUT_STREAM, final PointBuffer TARGET, final DoubleConsumer PROGRESS) throws IOException {
+        parse(new InputStreamReader(INPUT_STREAM, StandardCharsets.UTF_8), -1, TARGET, PROGRESS);
+    }
+
+    /**
+     * Parses the text of READER and appends the points to TARGET. The reader won't be closed.
+     * @param LENGTH   expected number of chars or -1 if unknown
+     * @param PROGRESS will be called on the calling thread with the parsed fraction (0 - 1) whenever
+     *                 another percent has been parsed, if the length is unknown only when finished (may be null)
+     * @throws IllegalArgumentException if the text contains an odd number of values
+     * @throws NumberFormatException if a value can't be parsed
+     */
+    public static final void parse(final Reader READER, final long LENGTH, final PointBuffer TARGET, final DoubleConsumer PROGRESS) throws IOException {
+        char[]   buffer       = new char[BUFFER_SIZE];
+        double[] xs           = new double[BATCH_SIZE];
+        double[] ys           = new double[BATCH_SIZE];
+        int      length       = 0;
+        long     noOfChars    = 0;
+        long     noOfValues   = 0;
+        int      batchSize    = 0;
+        int      lastPercent  = -1;
+        double   x            = 0;
+        boolean  endOfStream  = false;
+
+        while (!endOfStream) {
+            int noOfRead = READER.read(buffer, length, buffer.length - length);
+            if (noOfRead < 0) {
+                endOfStream = true;
+            } else {
+                length    += noOfRead;
+                noOfChars += noOfRead;
+            }
+
+            int position = 0;
+            while (true) {
+                while (position < length && isSeparator(buffer[position])) { position++; }
+                if (position == length) { break; }
+                int end = position;
+                while (end < length && !isSeparator(buffer[end])) { end++; }
+                // The value might continue in the next chunk
+                if (end == length && !endOfStream) { break; }
+
+                double value = parseDouble(buffer, position, end);
+                if (0 == (noOfValues & 1)) {
+                    x = value;
+                } else {
+                    xs[batchSize] = x;
+                    ys[batchSize] = value;
+                    batchSize++;
+                    if (BATCH_SIZE == batchSize) {
+                        TARGET.addAll(xs, ys, 0, batchSize);
+                        batchSize = 0;
+                    }
+                }
+                noOfValues++;
+                position = end;
+            }
+
+            // Keep the incomplete value for the next chunk
+            length -= position;
+            if (length > 0) { System.arraycopy(buffer, position, buffer, 0, length); }
+            if (length == buffer.length) { throw new NumberFormatException("Value exceeds " + BUFFER_SIZE + " chars"); }
+
+            if (null != PROGRESS && LENGTH > 0 && !endOfStream) {
+                int percent = (int) Math.min(100, noOfChars * 100 / LENGTH);
+                if (percent != lastPercent) {
+                    lastPercent = percent;
+                    PROGRESS.accept(percent / 100.0);
+                }
+            }
+        }
+        if (batchSize > 0) { TARGET.addAll(xs, ys, 0, batchSize); }
+        if (0 != (noOfValues & 1)) { throw new IllegalArgumentException("XYPairs must contain an equal number of x,y coordinates"); }
+        if (null != PROGRESS) { PROGRESS.accept(1.0); }
+    }
+
+    /**
+     * Parses the chars [FROM, TO) as a double value.
+     */
+    public static final double parseDouble(final char[] CHARS, final int FROM, final int TO) {
+        int     i        = FROM;
+        boolean negative = false;
+        if (i < TO && ('-' == CHARS[i] || '+' == CHARS[i])) {
+            negative = '-' == CHARS[i];
+            i++;
+        }
+
+        long    mantissa = 0;
+        int     digits   = 0;
+        int     exponent = 0;
+        boolean anyDigit = false;
+        while (i < TO && CHARS[i] >= '0' && CHARS[i] <= '9') {
+            int digit = CHARS[i] - '0';
+            if (0 != mantissa || 0 != digit) {
+                if (++digits > MAX_DIGITS) { return fallback(CHARS, FROM, TO); }
+            }
+            mantissa = mantissa * 10 + digit;
+            anyDigit = true;
+            i++;
+        }
+        if (i < TO && '.' == CHARS[i]) {
+            i++;
+            while (i < TO && CHARS[i] >= '0' && CHARS[i] <= '9') {
+                int digit = CHARS[i] - '0';
+                if (0 != mantissa || 0 != digit) {
+                    if (++digits > MAX_DIGITS) { return fallback(CHARS, FROM, TO); }
+                }
+                mantissa = mantissa * 10 + digit;
+                exponent--;
+                anyDigit = true;
+                i++;
+            }
+        }
+        if (!anyDigit) { return fallback(CHARS, FROM, TO); }
+
+        if (i < TO && ('e' == CHARS[i] || 'E' == CHARS[i])) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < TO && ('-' == CHARS[i] || '+' == CHARS[i])) {
+                negativeExponent = '-' == CHARS[i];
+                i++;
+            }
+            int     value         = 0;
+            boolean anyExpDigit   = false;
+            while (i < TO && CHARS[i] >= '0' && CHARS[i] <= '9') {
+                value = value * 10 + (CHARS[i] - '0');
+                if (value > 1000) { return fallback(CHARS, FROM, TO); }
+                anyExpDigit = true;
+                i++;
+            }
+            if (!anyExpDigit) { return fallback(CHARS, FROM, TO); }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != TO) { return fallback(CHARS, FROM, TO); }
+
+        // Exact for mantissas < 2^53 and powers of ten up to 1e22
+        double value;
+        if (0 == mantissa) {
+            value = 0;
+        } else if (0 == exponent) {
+            value = mantissa;
+        } else if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return fallback(CHARS, FROM, TO);
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isSeparator(final char CHAR) { return ',' == CHAR || ';' == CHAR || CHAR <= ' '; }
+
+    private static double fallback(final char[] CHARS, final int FROM, final int TO) { return Double.parseDouble(new String(CHARS, FROM, TO - FROM)); }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Multi resolution summary of an x sorted PointBuffer.
+ * Level 0 splits the points in chunks of CHUNK_SIZE points and keeps the
+ * index of the min and max point of each chunk. Every following level
+ * combines FAN_OUT chunks of the level below.
+ * Chunks are aligned to the index the points had before points were
+ * removed in front, so evicting points of a ring buffer only drops the
+ * whole chunks in front and rebuilds the partial first chunk of each level.
+ * The index is built lazily and only the part behind the lowest modified
+ * index will be rebuilt, so appending points is cheap.
+ */
+public class PointPyramid {
+    public  static final int         CHUNK_SIZE = 64;
+    public  static final int         FAN_OUT    = 8;
+    private        final PointBuffer points;
+    private        final List<Level> levels;
+    private              long        noOfRemovedFirst;
+    private              long        evicted;
+    private              long        builtEvicted;
+    private              long        validEnd;
+    private              boolean     dirty;
+
+
+    // ******************** Constructors **************************************
+    public PointPyramid(final PointBuffer POINTS) {
+        points           = POINTS;
+        levels           = new ArrayList<>();
+        noOfRemovedFirst = POINTS.getNoOfRemovedFirst();
+        evicted          = 0;
+        builtEvicted     = 0;
+        validEnd         = 0;
+        dirty            = true;
+        points.addChangeListener(this::onChange);
+    }
+
+
+    // ******************** Methods *******************************************
+    public void invalidate() {
+        evicted      = 0;
+        builtEvicted = 0;
+        validEnd     = 0;
+        levels.clear();
+        dirty        = true;
+    }
+
+    public void invalidateFrom(final int INDEX) {
+        // Only complete chunks in front of INDEX stay valid
+        long index = evicted + Math.max(0, INDEX);
+        validEnd = Math.min(validEnd, (index / CHUNK_SIZE) * CHUNK_SIZE);
+        dirty    = true;
+    }
+
+    /**
+     * Returns true if the x values of the indexed points are in ascending order.
+     */
+    public boolean isSorted() { return points.isXSorted(); }
+
+    public int getNoOfLevels() {
+        update();
+        return levels.size();
+    }
+
+    /**
+     * Collects the first, min, max and last point of every chunk that covers the
+     * x range from MIN_X to MAX_X into TARGET. The level is chosen in a way that
+     * at least two chunks fall into every of the given number of COLUMNS.
+     * One point left and right of the range is included to keep lines continuous.
+     * Chunks that span a boundary of the pixel columns (x - MIN_X) * STEP_X or of
+     * the range are replaced by their children down to the points themselves, so
+     * reducing TARGET with M4 for the same columns gives the same result as reducing
+     * the points of the range. If the visible range contains only a few points they
+     * will be copied as is.
+     */
+    public void query(final double MIN_X, final double MAX_X, final double STEP_X, final int COLUMNS, final PointBuffer TARGET) {
+        update();
+        TARGET.clear();
+        int size = points.size();
+        if (0 == size) { return; }
+
+        double[] xs   = points.getXs();
+        double[] ys   = points.getYs();
+        int      from = Math.max(0, Helper.lowerBound(xs, size, MIN_X) - 1);
+        int      to   = Math.min(size, Helper.upperBound(xs, size, MAX_X) + 1);
+        int      n    = to - from;
+
+        // Find the coarsest level that still has two chunks per column
+        int minChunks  = COLUMNS * 2;
+        int levelIndex = -1;
+        for (int i = 0 ; i < levels.size() ; i++) {
+            if (n / levels.get(i).pointsPerChunk >= minChunks) { levelIndex = i; } else { break; }
+        }
+        if (levelIndex < 0) {
+            TARGET.addAll(xs, ys, from, n);
+            return;
+        }
+
+        Level level      = levels.get(levelIndex);
+        long  firstChunk = (evicted + from) / level.pointsPerChunk;
+        long  lastChunk  = (evicted + to - 1) / level.pointsPerChunk;
+        TARGET.ensureCapacity((int) (lastChunk - firstChunk + 1) * 4);
+        for (long c = firstChunk ; c <= lastChunk ; c++) {
+            addChunk(levelIndex, c, xs, ys, from, to, MIN_X, STEP_X, COLUMNS, TARGET);
+        }
+    }
+
+    // Adds the first, min, max and last point of CHUNK if all its points are in [FROM, TO) and fall into one pixel column, otherwise the chunks below
+    private void addChunk(final int LEVEL_INDEX, final long CHUNK, final double[] XS, final double[] YS, final int FROM, final int TO,
+                          final double MIN_X, final double STEP_X, final int COLUMNS, final PointBuffer TARGET) {
+        Level level = levels.get(LEVEL_INDEX);
+        int   first = firstIndex(level, CHUNK);
+        int   last  = lastIndex(level, CHUNK, points.size());
+        if (last < FROM || first >= TO) { return; }
+        if (first < FROM || last >= TO || Decimator.column(XS[first], MIN_X, STEP_X, COLUMNS) != Decimator.column(XS[last], MIN_X, STEP_X, COLUMNS)) {
+            if (0 == LEVEL_INDEX) {
+                int from = Math.max(first, FROM);
+                TARGET.addAll(XS, YS, from, Math.min(last, TO - 1) - from + 1);
+                return;
+            }
+            Level lower      = levels.get(LEVEL_INDEX - 1);
+            long  firstChild = Math.max(lower.firstChunk, CHUNK * FAN_OUT);
+            long  lastChild  = Math.min(lower.firstChunk + lower.size - 1, CHUNK * FAN_OUT + FAN_OUT - 1);
+            for (long child = firstChild ; child <= lastChild ; child++) {
+                addChunk(LEVEL_INDEX - 1, child, XS, YS, FROM, TO, MIN_X, STEP_X, COLUMNS, TARGET);
+            }
+            return;
+        }
+        int min   = level.getMin(CHUNK);
+        int max   = level.getMax(CHUNK);
+        int lower = Math.min(min, max);
+        int upper = Math.max(min, max);
+        TARGET.add(XS[first], YS[first]);
+        if (lower != first)                  { TARGET.add(XS[lower], YS[lower]); }
+        if (upper != lower && upper != first) { TARGET.add(XS[upper], YS[upper]); }
+        if (last != upper && last != first)  { TARGET.add(XS[last], YS[last]); }
+    }
+
+    private void onChange(final int INDEX) {
+        long noOfRemoved = points.getNoOfRemovedFirst();
+        if (noOfRemoved == noOfRemovedFirst) {
+            invalidateFrom(INDEX);
+            return;
+        }
+        // Points have been evicted in front
+        evicted         += noOfRemoved - noOfRemovedFirst;
+        noOfRemovedFirst = noOfRemoved;
+        dirty            = true;
+    }
+
+    // Index of the first point of CHUNK that is still in the buffer
+    private int firstIndex(final Level LEVEL, final long CHUNK) { return (int) (Math.max(CHUNK * LEVEL.pointsPerChunk, evicted) - evicted); }
+
+    private int lastIndex(final Level LEVEL, final long CHUNK, final int SIZE) { return (int) (Math.min((CHUNK + 1) * LEVEL.pointsPerChunk, evicted + SIZE) - evicted) - 1; }
+
+    private void update() {
+        if (!dirty) { return; }
+        int size = points.size();
+        if (0 == size) {
+            invalidate();
+            dirty = false;
+            return;
+        }
+
+        double[] ys          = points.getYs();
+        long     end         = evicted + size;
+        // The first chunk of every level has to be rebuilt if points of it have been evicted
+        boolean  firstEvicted = evicted != builtEvicted;
+
+        // Level 0 is built from the points
+        if (levels.isEmpty()) { levels.add(new Level(CHUNK_SIZE)); }
+        Level level0     = levels.get(0);
+        long  firstChunk = evicted / CHUNK_SIZE;
+        long  lastChunk  = (end - 1) / CHUNK_SIZE;
+        long  startChunk = Math.max(firstChunk, Math.min(validEnd / CHUNK_SIZE, lastChunk + 1));
+        level0.setRange(firstChunk, lastChunk);
+        if (firstEvicted && startChunk > firstChunk) { buildChunk(level0, firstChunk, ys, size); }
+        for (long c = startChunk ; c <= lastChunk ; c++) { buildChunk(level0, c, ys, size); }
+
+        // Coarser levels are built from the level below until one chunk is left
+        int   levelIndex = 1;
+        long  startChild = startChunk;
+        Level lower      = level0;
+        while (lower.size > 1) {
+            if (levels.size() == levelIndex) { levels.add(new Level(lower.pointsPerChunk * FAN_OUT)); }
+            Level upper      = levels.get(levelIndex);
+            long  firstUpper = lower.firstChunk / FAN_OUT;
+            long  lastUpper  = (lower.firstChunk + lower.size - 1) / FAN_OUT;
+            long  startUpper = Math.max(firstUpper, startChild / FAN_OUT);
+            // A level that has just been added has to be built completely
+            if (upper.size == 0) { startUpper = firstUpper; }
+            upper.setRange(firstUpper, lastUpper);
+            if (firstEvicted && startUpper > firstUpper) { buildChunk(upper, lower, firstUpper, ys); }
+            for (long c = startUpper ; c <= lastUpper ; c++) { buildChunk(upper, lower, c, ys); }
+            startChild = startUpper;
+            lower      = upper;
+            levelIndex++;
+        }
+        while (levels.size() > levelIndex) { levels.remove(levels.size() - 1); }
+
+        builtEvicted = evicted;
+        validEnd     = (end / CHUNK_SIZE) * CHUNK_SIZE;
+        dirty        = false;
+    }
+
+    private void buildChunk(final Level LEVEL, final long CHUNK, final double[] YS, final int SIZE) {
+        int first = firstIndex(LEVEL, CHUNK);
+        int last  = lastIndex(LEVEL, CHUNK, SIZE);
+        int min   = first;
+        int max   = first;
+        for (int i = first + 1 ; i <= last ; i++) {
+            if (YS[i] < YS[min]) { min = i; }
+            if (YS[i] > YS[max]) { max = i; }
+        }
+        LEVEL.set(CHUNK, min + evicted, max + evicted);
+    }
+
+    private void buildChunk(final Level UPPER, final Level LOWER, final long CHUNK, final double[] YS) {
+        long firstChild = Math.max(LOWER.firstChunk, CHUNK * FAN_OUT);
+        long lastChild  = Math.min(LOWER.firstChunk + LOWER.size - 1, CHUNK * FAN_OUT + FAN_OUT - 1);
+        int  min        = LOWER.getMin(firstChild);
+        int  max        = LOWER.getMax(firstChild);
+        for (long child = firstChild + 1 ; child <= lastChild ; child++) {
+            int childMin = LOWER.getMin(child);
+            int childMax = LOWER.getMax(child);
+            if (YS[childMin] < YS[min]) { min = childMin; }
+            if (YS[childMax] > YS[max]) { max = childMax; }
+        }
+        UPPER.set(CHUNK, min + evicted, max + evicted);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    // Chunks [firstChunk, firstChunk + size) with the index of their min and max point as offset to the first index of the chunk
+    private class Level {
+        private final long  pointsPerChunk;
+        private       long  firstChunk;
+        private       int   start;
+        private       int   size;
+        private       int[] min;
+        private       int[] max;
+
+        Level(final long POINTS_PER_CHUNK) {
+            pointsPerChunk = POINTS_PER_CHUNK;
+            firstChunk     = 0;
+            start          = 0;
+            size           = 0;
+            min            = new int[0];
+            max            = new int[0];
+        }
+
+        int getMin(final long CHUNK) { return (int) (CHUNK * pointsPerChunk + min[start + (int) (CHUNK - firstChunk)] - evicted); }
+
+        int getMax(final long CHUNK) { return (int) (CHUNK * pointsPerChunk + max[start + (int) (CHUNK - firstChunk)] - evicted); }
+
+        void set(final long CHUNK, final long MIN, final long MAX) {
+            int index  = start + (int) (CHUNK - firstChunk);
+            min[index] = (int) (MIN - CHUNK * pointsPerChunk);
+            max[index] = (int) (MAX - CHUNK * pointsPerChunk);
+        }
+
+        // Drops the chunks in front of FIRST_CHUNK in O(1) and makes room for the chunks up to LAST_CHUNK
+        void setRange(final long FIRST_CHUNK, final long LAST_CHUNK) {
+            int noOfKept = (int) Math.max(0, Math.min(firstChunk + size, LAST_CHUNK + 1) - FIRST_CHUNK);
+            if (FIRST_CHUNK < firstChunk || 0 == noOfKept) {
+                start    = 0;
+                noOfKept = 0;
+            } else {
+                start += (int) (FIRST_CHUNK - firstChunk);
+            }
+            firstChunk = FIRST_CHUNK;
+            size       = (int) (LAST_CHUNK - FIRST_CHUNK + 1);
+            if (start + size <= min.length) { return; }
+            // Compacting is amortized O(1) if at least as many chunks were dropped in front as are left
+            if (size <= min.length && start >= size) {
+                System.arraycopy(min, start, min, 0, noOfKept);
+                System.arraycopy(max, start, max, 0, noOfKept);
+                start = 0;
+                return;
+            }
+            int   newCapacity = Math.max(size, min.length + (min.length >> 1));
+            int[] newMin      = new int[newCapacity];
+            int[] newMax      = new int[newCapacity];
+            System.arraycopy(min, start, newMin, 0, noOfKept);
+            System.arraycopy(max, start, newMax, 0, noOfKept);
+            min   = newMin;
+            max   = newMax;
+            start = 0;
+        }
+    }
+}
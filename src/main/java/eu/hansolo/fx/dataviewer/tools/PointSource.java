@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+
+/**
+ * Indexed read access to x/y coordinates of an overlay, e.g. a PointBuffer
+ * on the heap or a memory mapped file.
+ */
+public interface PointSource {
+
+    int size();
+
+    double getX(int INDEX);
+
+    double getY(int INDEX);
+
+    /**
+     * @return true if the x values are known to be in ascending order
+     */
+    default boolean isXSorted() { return false; }
+
+    /**
+     * @return true if the points can't be modified
+     */
+    default boolean isReadOnly() { return true; }
+
+    /**
+     * Bounds of the points, NaN values are ignored. If there are no points the min
+     * values are Double.POSITIVE_INFINITY and the max values Double.NEGATIVE_INFINITY.
+     * The default implementations scan all points, implementations should cache them.
+     */
+    default double getMinX() { return scanBounds(this)[0]; }
+
+    default double getMinY() { return scanBounds(this)[1]; }
+
+    default double getMaxX() { return scanBounds(this)[2]; }
+
+    default double getMaxY() { return scanBounds(this)[3]; }
+
+    /**
+     * Copies the points [FROM, TO) into XS/YS starting at OFFSET.
+     */
+    default void read(final int FROM, final int TO, final double[] XS, final double[] YS, final int OFFSET) {
+        int target = OFFSET;
+        for (int i = FROM ; i < TO ; i++) {
+            XS[target] = getX(i);
+            YS[target] = getY(i);
+            target++;
+        }
+    }
+
+    /**
+     * Returns { minX, minY, maxX, maxY } of all points of SOURCE.
+     */
+    static double[] scanBounds(final PointSource SOURCE) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0, n = SOURCE.size() ; i < n ; i++) {
+            double x = SOURCE.getX(i);
+            double y = SOURCE.getY(i);
+            if (x < minX) { minX = x; }
+            if (x > maxX) { maxX = x; }
+            if (y < minY) { minY = y; }
+            if (y > maxY) { maxY = y; }
+        }
+        return new double[] { minX, minY, maxX, maxY };
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Transforms data coordinates into screen coordinates of a chart with the
+ * given height. Large ranges will be split into chunks that are transformed
+ * in parallel on the common fork join pool.
+ */
+public class ScreenTransform {
+    public static final int MIN_CHUNK_SIZE = 8_192;
+
+
+    // ******************** Constructors **************************************
+    private ScreenTransform() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Transforms the points [FROM, TO) of XS/YS into SCREEN_XS/SCREEN_YS starting at OFFSET.
+     * If the number of points is at least PARALLEL_THRESHOLD (and the threshold is > 0)
+     * the work will be split by chunks and executed in parallel.
+     */
+    public static final void transform(final double[] XS, final double[] YS, final int FROM, final int TO,
+                                       final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y, final double HEIGHT,
+                                       final double[] SCREEN_XS, final double[] SCREEN_YS, final int OFFSET, final int PARALLEL_THRESHOLD) {
+        int length = TO - FROM;
+        if (length <= 0) { return; }
+        if (PARALLEL_THRESHOLD > 0 && length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, length / (ForkJoinPool.getCommonPoolParallelism() * 4));
+            ForkJoinPool.commonPool().invoke(new TransformTask(XS, YS, FROM, TO, MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT, SCREEN_XS, SCREEN_YS, OFFSET, chunkSize));
+        } else {
+            transformRange(XS, YS, FROM, TO, MIN_X, MIN_Y, STEP_X, STEP_Y, HEIGHT, SCREEN_XS, SCREEN_YS, OFFSET);
+        }
+    }
+
+    private static void transformRange(final double[] XS, final double[] YS, final int FROM, final int TO,
+                                       final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y, final double HEIGHT,
+                                       final double[] SCREEN_XS, final double[] SCREEN_YS, final int OFFSET) {
+        int target = OFFSET;
+        for (int i = FROM ; i < TO ; i++) {
+            SCREEN_XS[target] = (XS[i] - MIN_X) * STEP_X;
+            SCREEN_YS[target] = HEIGHT - (YS[i] - MIN_Y) * STEP_Y;
+            target++;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class TransformTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final double[] xs;
+        private final double[] ys;
+        private final int      from;
+        private final int      to;
+        private final double   minX;
+        private final double   minY;
+        private final double   stepX;
+        private final double   stepY;
+        private final double   height;
+        private final double[] screenXs;
+        private final double[] screenYs;
+        private final int      offset;
+        private final int      chunkSize;
+
+        TransformTask(final double[] XS, final double[] YS, final int FROM, final int TO,
+                      final double MIN_X, final double MIN_Y, final double STEP_X, final double STEP_Y, final double HEIGHT,
+                      final double[] SCREEN_XS, final double[] SCREEN_YS, final int OFFSET, final int CHUNK_SIZE) {
+            xs        = XS;
+            ys        = YS;
+            from      = FROM;
+            to        = TO;
+            minX      = MIN_X;
+            minY      = MIN_Y;
+            stepX     = STEP_X;
+            stepY     = STEP_Y;
+            height    = HEIGHT;
+            screenXs  = SCREEN_XS;
+            screenYs  = SCREEN_YS;
+            offset    = OFFSET;
+            chunkSize = CHUNK_SIZE;
+        }
+
+        @Override protected void compute() {
+            int length = to - from;
+            if (length <= chunkSize) {
+                transformRange(xs, ys, from, to, minX, minY, stepX, stepY, height, screenXs, screenYs, offset);
+            } else {
+                int middle = from + length / 2;
+                invokeAll(new TransformTask(xs, ys, from, middle, minX, minY, stepX, stepY, height, screenXs, screenYs, offset, chunkSize),
+                          new TransformTask(xs, ys, middle, to, minX, minY, stepX, stepY, height, screenXs, screenYs, offset + (middle - from), chunkSize));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Bounded LRU cache of text widths per font. Numeric texts (digits, sign,
+ * decimal and group separators, exponent, time separators) are measured by
+ * summing the advance widths of their glyphs that are measured once per font,
+ * all other texts are measured with a Text node once and then cached.
+ * Has to be used on the FX application thread.
+ */
+public class TextWidthCache {
+    public  static final int                     DEFAULT_MAX_ENTRIES = 1024;
+    private static final int                     MAX_FONTS           = 16;
+    private static final String                  NUMERIC_CHARS       = "0123456789.,-+eE: ";
+    private        final int                     maxEntries;
+    private        final Map<Font, FontWidths>   fonts;
+    private        final Text                    text;
+
+
+    // ******************** Constructors **************************************
+    public TextWidthCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+    public TextWidthCache(final int MAX_ENTRIES) {
+        if (MAX_ENTRIES < 1) { throw new IllegalArgumentException("Max entries must be at least 1"); }
+        maxEntries = MAX_ENTRIES;
+        fonts      = new LinkedHashMap<Font, FontWidths>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<Font, FontWidths> ELDEST) { return size() > MAX_FONTS; }
+        };
+        text       = new Text();
+    }
+
+
+    // ******************** Methods *******************************************
+    public double getWidth(final Font FONT, final String TEXT) {
+        if (null == TEXT || TEXT.isEmpty()) { return 0; }
+        FontWidths widths = fonts.get(FONT);
+        if (null == widths) {
+            widths = new FontWidths(maxEntries);
+            fonts.put(FONT, widths);
+        }
+
+        double numericWidth = numericWidth(FONT, widths, TEXT);
+        if (numericWidth >= 0) { return numericWidth; }
+
+        Double width = widths.texts.get(TEXT);
+        if (null == width) {
+            width = measure(FONT, TEXT);
+            widths.texts.put(TEXT, width);
+        }
+        return width;
+    }
+
+    public void clear() { fonts.clear(); }
+
+    // Returns the sum of the glyph widths or -1 if TEXT contains non numeric chars
+    private double numericWidth(final Font FONT, final FontWidths WIDTHS, final String TEXT) {
+        double width = 0;
+        for (int i = 0, n = TEXT.length() ; i < n ; i++) {
+            int glyph = NUMERIC_CHARS.indexOf(TEXT.charAt(i));
+            if (glyph < 0) { return -1; }
+            if (null == WIDTHS.glyphs) {
+                WIDTHS.glyphs = new double[NUMERIC_CHARS.length()];
+                for (int g = 0 ; g < NUMERIC_CHARS.length() ; g++) { WIDTHS.glyphs[g] = measure(FONT, String.valueOf(NUMERIC_CHARS.charAt(g))); }
+            }
+            width += WIDTHS.glyphs[glyph];
+        }
+        return width;
+    }
+
+    private double measure(final Font FONT, final String TEXT) {
+        text.setFont(FONT);
+        text.setText(TEXT);
+        return text.getLayoutBounds().getWidth();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static class FontWidths {
+        final Map<String, Double> texts;
+        double[]                  glyphs;
+
+        FontWidths(final int MAX_ENTRIES) {
+            texts = new LinkedHashMap<String, Double>(64, 0.75f, true) {
+                @Override protected boolean removeEldestEntry(final Map.Entry<String, Double> ELDEST) { return size() > MAX_ENTRIES; }
+            };
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.dataviewer.tools;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * Calendar aligned steps between the ticks of a time axis whose values are
+ * seconds since the epoch. Steps below a day are aligned to the fields of
+ * the local time (e.g. every 15 minutes of an hour), days to the epoch day
+ * (weeks start on monday), months and years to multiples of the step.
+ */
+public enum TimeStep {
+    SECOND_1(ChronoUnit.SECONDS, 1, "HH:mm:ss"),
+    SECOND_2(ChronoUnit.SECONDS, 2, "HH:mm:ss"),
+    SECOND_5(ChronoUnit.SECONDS, 5, "HH:mm:ss"),
+    SECOND_10(ChronoUnit.SECONDS, 10, "HH:mm:ss"),
+    SECOND_15(ChronoUnit.SECONDS, 15, "HH:mm:ss"),
+    SECOND_30(ChronoUnit.SECONDS, 30, "HH:mm:ss"),
+    MINUTE_1(ChronoUnit.MINUTES, 1, "HH:mm"),
+    MINUTE_2(ChronoUnit.MINUTES, 2, "HH:mm"),
+    MINUTE_5(ChronoUnit.MINUTES, 5, "HH:mm"),
+    MINUTE_10(ChronoUnit.MINUTES, 10, "HH:mm"),
+    MINUTE_15(ChronoUnit.MINUTES, 15, "HH:mm"),
+    MINUTE_30(ChronoUnit.MINUTES, 30, "HH:mm"),
+    HOUR_1(ChronoUnit.HOURS, 1, "HH:mm"),
+    HOUR_2(ChronoUnit.HOURS, 2, "HH:mm"),
+    HOUR_3(ChronoUnit.HOURS, 3, "HH:mm"),
+    HOUR_6(ChronoUnit.HOURS, 6, "HH:mm"),
+    HOUR_12(ChronoUnit.HOURS, 12, "HH:mm"),
+    DAY_1(ChronoUnit.DAYS, 1, "dd.MM."),
+    DAY_2(ChronoUnit.DAYS, 2, "dd.MM."),
+    WEEK_1(ChronoUnit.DAYS, 7, "dd.MM."),
+    MONTH_1(ChronoUnit.MONTHS, 1, "MM.yyyy"),
+    MONTH_2(ChronoUnit.MONTHS, 2, "MM.yyyy"),
+    MONTH_3(ChronoUnit.MONTHS, 3, "MM.yyyy"),
+    MONTH_6(ChronoUnit.MONTHS, 6, "MM.yyyy"),
+    YEAR_1(ChronoUnit.YEARS, 1, "yyyy"),
+    YEAR_2(ChronoUnit.YEARS, 2, "yyyy"),
+    YEAR_5(ChronoUnit.YEARS, 5, "yyyy"),
+    YEAR_10(ChronoUnit.YEARS, 10, "yyyy"),
+    YEAR_25(ChronoUnit.YEARS, 25, "yyyy"),
+    YEAR_50(ChronoUnit.YEARS, 50, "yyyy"),
+    YEAR_100(ChronoUnit.YEARS, 100, "yyyy");
+
+    private static final DateTimeFormatter DATE_FORMATTER        = DateTimeFormatter.ofPattern("dd.MM.");
+    private static final int               MAX_NO_OF_MINOR_STEPS = 15;
+    public  final ChronoUnit               unit;
+    public  final int                      amount;
+    public  final double                   seconds;
+    private final DateTimeFormatter        formatter;
+
+
+    // ******************** Constructors **************************************
+    TimeStep(final ChronoUnit UNIT, final int AMOUNT, final String PATTERN) {
+        unit      = UNIT;
+        amount    = AMOUNT;
+        seconds   = UNIT.getDuration().getSeconds() * AMOUNT;
+        formatter = DateTimeFormatter.ofPattern(PATTERN);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the smallest step that divides RANGE (in seconds) into at most MAX_NO_OF_STEPS steps.
+     */
+    public static TimeStep forRange(final double RANGE, final int MAX_NO_OF_STEPS) {
+        TimeStep[] steps = values();
+        for (TimeStep step : steps) {
+            if (RANGE / step.seconds <= MAX_NO_OF_STEPS) { return step; }
+        }
+        return steps[steps.length - 1];
+    }
+
+    /**
+     * Returns the step for the minor ticks between the ticks of this step. Its ticks include
+     * all ticks of this step and it preferably divides this step into 4 - MAX_NO_OF_MINOR_STEPS parts.
+     * Returns this step if there is no such step (e.g. days don't fit nicely into months).
+     */
+    public TimeStep minor() {
+        TimeStep[] steps     = values();
+        TimeStep   candidate = this;
+        for (int i = ordinal() - 1 ; i >= 0 ; i--) {
+            TimeStep step = steps[i];
+            if (!step.divides(this)) { continue; }
+            double ratio = seconds / step.seconds;
+            if (ratio > MAX_NO_OF_MINOR_STEPS) { break; }
+            candidate = step;
+            if (ratio >= 4) { break; }
+        }
+        return candidate;
+    }
+
+    private boolean divides(final TimeStep STEP) {
+        if (unit == STEP.unit) { return 0 == STEP.amount % amount; }
+        // Steps below a day are aligned to the fields of the local time, single days include every larger boundary and months every year
+        return unit.compareTo(ChronoUnit.DAYS) < 0 || DAY_1 == this || ChronoUnit.YEARS == STEP.unit;
+    }
+
+    public ZonedDateTime floor(final ZonedDateTime TIME) {
+        switch(unit) {
+            case SECONDS: ZonedDateTime second = TIME.truncatedTo(ChronoUnit.SECONDS); return second.withSecond(second.getSecond() - second.getSecond() % amount);
+            case MINUTES: ZonedDateTime minute = TIME.truncatedTo(ChronoUnit.MINUTES); return minute.withMinute(minute.getMinute() - minute.getMinute() % amount);
+            case HOURS  : ZonedDateTime hour   = TIME.truncatedTo(ChronoUnit.HOURS);   return hour.withHour(hour.getHour() - hour.getHour() % amount);
+            case DAYS   :
+                ZonedDateTime day      = TIME.truncatedTo(ChronoUnit.DAYS);
+                // 1970-01-01 was a thursday
+                long          epochDay = day.toLocalDate().toEpochDay() + (7 == amount ? 3 : 0);
+                return day.minusDays(Math.floorMod(epochDay, amount));
+            case MONTHS :
+                ZonedDateTime month = TIME.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                return month.minusMonths((month.getMonthValue() - 1) % amount);
+            case YEARS  :
+            default     :
+                ZonedDateTime year = TIME.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+                return year.minusYears(Math.floorMod(year.getYear(), amount));
+        }
+    }
+
+    /**
+     * Returns the tick that follows TIME. Hours and larger steps are added to the local time and
+     * aligned again, so the ticks stay on local boundaries across daylight saving time changes.
+     */
+    public ZonedDateTime next(final ZonedDateTime TIME) {
+        if (unit.compareTo(ChronoUnit.HOURS) < 0) { return TIME.plus(amount, unit); }
+        ZonedDateTime next = floor(TIME.toLocalDateTime().plus(amount, unit).atZone(TIME.getZone()));
+        return next.isAfter(TIME) ? next : TIME.plus(amount, unit);
+    }
+
+    public boolean isAligned(final ZonedDateTime TIME) { return floor(TIME).toEpochSecond() == TIME.toEpochSecond(); }
+
+    /**
+     * Formats the given seconds since the epoch, ticks at midnight of steps below a day show the date.
+     */
+    public String format(final double SECONDS, final ZoneId ZONE_ID) {
+        ZonedDateTime time = Instant.ofEpochSecond((long) Math.floor(SECONDS)).atZone(ZONE_ID);
+        if (unit.compareTo(ChronoUnit.DAYS) < 0 && 0 == time.toLocalTime().toSecondOfDay()) { return DATE_FORMATTER.format(time); }
+        return formatter.format(time);
+    }
+}